@@ -28,8 +28,6 @@
 import java.util.Arrays;
 import java.util.ResourceBundle;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.slf4j.Logger;
@@ -303,6 +301,12 @@ private void handlePngExportAction(ActionEvent e) {
         share.exportPNG();
         menubutton.fire();
     }
+
+    @FXML
+    private void handleBundleExportAction(ActionEvent e) {
+        share.exportBundle();
+        menubutton.fire();
+    }
     
     @FXML
     private void handleMapInsertAction(ActionEvent e) {
@@ -900,11 +904,6 @@ public void setAppStyles(Boolean isDarkMode) {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // set the theme to light
-        this.themeFillColor = new SimpleStringProperty("lightgray");
-        this.themeBackgroundColor = new SimpleStringProperty("white");
-        this.themeAccentColor = new SimpleStringProperty("black");
-        this.canvasBackgroundColor = new SimpleStringProperty("white");
         this.prepareDarkModeOptions();
         this.themeProperty = new SimpleBooleanProperty();
         this.themeProperty.setValue(false);
@@ -1262,7 +1261,6 @@ private void prepareAboutBoxMenu() {
         appmenu.addRow(lastrow + hboxes + 2, about, aboutmenu);
     }
 
-    private final ExecutorService executor = Executors.newCachedThreadPool();
     private double shift = 20.0;
 
     /**
@@ -1279,21 +1277,24 @@ public void insertSVGAction(ActionEvent ev) {
                 picture.setStart(shift, shift);
                 ImageItem item = new ImageItem(image);
                 item.setFormat(FileUtils.getExtension(filename));
-                int index = viewProvider.get().setImageItem(item);
+                // hash here rather than on the FX application thread
+                item.getContentHash();
                 double width = (double) image.getWidth();
                 double height = (double) image.getHeight();
                 double scale = 48d / height;
                 logger.trace("Image relative scale: {}", scale);
-                picture.setImage(index, width, height);
                 picture.setScale(scale);
                 Platform.runLater(() -> {
+                    // an icon inserted again shares its image
+                    int index = viewProvider.get().shareImageItem(item);
+                    picture.setImage(index, width, height);
                     viewProvider.get().setNewItem(picture);
                     viewProvider.get().resetNewItem();
                 });
             } catch (IOException ex) {
                 logger.error("Can't fetch resource {}", filename);
             }
-        }, executor).thenRun(() -> {
+        }, share.codec).thenRun(() -> {
             shift += 45.0;
         });
     }
@@ -1465,6 +1466,11 @@ public Color fromRGBCode(String colorStr) {
     public ApplicationController(Provider<DrawingArea> drawareaProvider, Provider<CanvasView> viewProvider) {
         this.drawareaProvider = drawareaProvider;
         this.viewProvider = viewProvider;
+        // set the theme to light, also used where no stage is shown
+        this.themeFillColor = new SimpleStringProperty("lightgray");
+        this.themeBackgroundColor = new SimpleStringProperty("white");
+        this.themeAccentColor = new SimpleStringProperty("black");
+        this.canvasBackgroundColor = new SimpleStringProperty("white");
     }
 
     @FXML
@@ -0,0 +1,281 @@
+/*
+ * BatchExport.java
+ *
+ * Created on Oct 17, 2026 6:12:40 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import javafx.application.Platform;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Grouped;
+import net.perspective.draw.geom.Text;
+import net.perspective.draw.util.TaskScheduler;
+import net.perspective.draw.workers.BundleWorker;
+import net.perspective.draw.workers.ReadInFunnel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports drawings from the command line without showing a stage
+ *
+ * <pre>
+ * BatchExport [-j workers] [-f png,svg,pdf] [-d directory] file.gst ...
+ * </pre>
+ *
+ * <p>Files are exported in parallel, each worker thread has its own
+ * application graph so that documents do not share a view, and the graphs
+ * share one scheduler so that rendering is bounded to the cores. Exports
+ * are written beside each file unless a directory is given. Maps are drawn
+ * from the image stored with the document.
+ *
+ * <p>The FX toolkit is started to measure text, which requires a display
+ * unless Monocle is on the class path, when its headless glass platform
+ * is used.
+ *
+ * @author ctipper
+ */
+
+public class BatchExport {
+
+    private final int workers;
+    private final List<String> formats;
+    private final File directory;
+    private final TaskScheduler scheduler;
+    private final ThreadLocal<DrawAppComponent> component;
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchExport.class.getName());
+
+    /**
+     * Creates a new instance of <code>BatchExport</code>
+     *
+     * @param workers the number of files exported at once
+     * @param formats the export formats
+     * @param directory the output directory, or null to write beside each file
+     */
+    public BatchExport(int workers, List<String> formats, File directory) {
+        this.workers = workers;
+        this.formats = formats;
+        this.directory = directory;
+        this.scheduler = new TaskScheduler(Runtime.getRuntime().availableProcessors(), 4);
+        this.component = ThreadLocal.withInitial(() -> onFxThread(() -> {
+            DrawAppComponent c = DaggerDrawAppComponent.builder()
+                    .drawAppModule(new DrawAppModule(scheduler))
+                    .build();
+            // the view creates FX animations, so build it here
+            c.canvasView();
+            return c;
+        }));
+    }
+
+    /**
+     * Export the files, reporting the time taken for each, the scheduler
+     * is shut down when complete
+     *
+     * @param files the drawings
+     * @return the number of files that failed
+     */
+    public int export(List<File> files) {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long begin = System.nanoTime();
+        int failures = 0;
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(files.size());
+            for (File file : files) {
+                results.add(pool.submit(() -> this.export(file)));
+            }
+            for (Future<Boolean> result : results) {
+                try {
+                    if (!result.get()) {
+                        failures++;
+                    }
+                } catch (ExecutionException e) {
+                    logger.warn(e.getCause().getMessage());
+                    failures++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures++;
+                }
+            }
+        } finally {
+            pool.shutdown();
+            scheduler.shutdown();
+        }
+        System.out.printf(Locale.ROOT, "%d files, %d failed, %d ms%n",
+            files.size(), failures, millis(begin));
+        return failures;
+    }
+
+    /**
+     * Read one file and write each format
+     */
+    private boolean export(File file) {
+        long begin = System.nanoTime();
+        DrawAppComponent appComponent = component.get();
+        CanvasView view = appComponent.canvasView();
+        ShareUtils share = appComponent.shareUtils();
+
+        ReadInFunnel reader = appComponent.provideReadInFunnel();
+        reader.setFile(file);
+        if (!reader.read()) {
+            System.out.printf(Locale.ROOT, "%s: can't read%n", file);
+            return false;
+        }
+        if (reader.getDrawings().isEmpty()) {
+            System.out.printf(Locale.ROOT, "%s: empty, skipped%n", file);
+            return true;
+        }
+        // load, measure text as the canvas would and copy, on the FX
+        // application thread, the view is then free for the next file
+        DocumentSnapshot snapshot = onFxThread(() -> {
+            try {
+                view.getImageItems().addAll(reader.getImageItems());
+                view.getDrawings().addAll(reader.getDrawings());
+                view.getDrawings().forEach(BatchExport::measure);
+                return view.snapshot();
+            } finally {
+                view.getDrawings().clear();
+                view.getImageItems().clear();
+            }
+        });
+        long read = millis(begin);
+
+        // one pass renders each format from the same prepared items
+        BundleWorker bundleWorker = appComponent.provideBundleWorker();
+        bundleWorker.setFile(this.getTarget(file));
+        bundleWorker.setFormats(formats);
+        bundleWorker.setMargin(share.getMargin());
+        bundleWorker.setSnapshot(snapshot);
+        if (!bundleWorker.export()) {
+            System.out.printf(Locale.ROOT, "%s: export failed%n", file);
+            return false;
+        }
+        System.out.printf(Locale.ROOT, "%s: read %d ms, export %d ms%n",
+            file, read, millis(begin) - read);
+        return true;
+    }
+
+    private File getTarget(File file) {
+        return directory == null ? file : new File(directory, file.getName());
+    }
+
+    private static void measure(DrawItem item) {
+        if (item instanceof Text text) {
+            text.setDimensions();
+        } else if (item instanceof Grouped grouped) {
+            grouped.getDrawItems().forEach(BatchExport::measure);
+        }
+    }
+
+    private static <T> T onFxThread(Callable<T> callable) {
+        if (Platform.isFxApplicationThread()) {
+            try {
+                return callable.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        FutureTask<T> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long millis(long start) {
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    private static boolean hasMonocle() {
+        try {
+            Class.forName("com.sun.glass.ui.monocle.MonoclePlatformFactory");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: BatchExport [-j workers] [-f png,svg,pdf] [-d directory] file.gst ...");
+        System.exit(2);
+    }
+
+    /**
+     * Export drawings without a user interface
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        // each export also renders in parallel
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        List<String> formats = List.of("png");
+        File directory = null;
+        List<File> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-j" -> workers = Integer.parseInt(args[++i]);
+                    case "-f" -> formats = List.of(args[++i].toLowerCase(Locale.ROOT).split(","));
+                    case "-d" -> directory = new File(args[++i]);
+                    default -> files.add(new File(args[i]));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            usage();
+        }
+        if (files.isEmpty() || workers < 1 || !BundleWorker.FORMATS.containsAll(formats)) {
+            usage();
+        }
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            System.err.println("Can't create " + directory);
+            System.exit(2);
+        }
+
+        System.setProperty("java.awt.headless", "true");
+        if (hasMonocle()) {
+            // the FX toolkit without a display
+            System.setProperty("glass.platform", "Monocle");
+            System.setProperty("monocle.platform", "Headless");
+            System.setProperty("prism.order", "sw");
+        }
+        Platform.setImplicitExit(false);
+        Platform.startup(() -> {
+        });
+        int failures = new BatchExport(workers, formats, directory).export(files);
+        Platform.exit();
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+}
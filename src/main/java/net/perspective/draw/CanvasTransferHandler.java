@@ -139,25 +139,61 @@ private boolean importDrawItem(Transferable t) throws UnsupportedFlavorException
 
     /**
      * Paste raw image data (e.g. copied from another application) onto the canvas.
+     * An encoded representation is preferred when offered, as its bytes are
+     * saved with the document unchanged.
      */
     private boolean importImageItem(Transferable t) throws UnsupportedFlavorException, IOException {
+        for (DataFlavor f : t.getTransferDataFlavors()) {
+            String format = encodedFormat(f);
+            if (format != null) {
+                byte[] data;
+                try (InputStream in = (InputStream) t.getTransferData(f)) {
+                    data = in.readAllBytes();
+                }
+                Image image = new Image(new ByteArrayInputStream(data));
+                if (!image.isError()) {
+                    placeImage(image, format, data);
+                    return true;
+                }
+            }
+        }
         java.awt.Image img = (java.awt.Image) t.getTransferData(DataFlavor.imageFlavor);
-        placeImage(SwingFXUtils.toFXImage(toBufferedImage(img), null), "PNG");
+        placeImage(SwingFXUtils.toFXImage(toBufferedImage(img), null), "PNG", null);
         return true;
     }
 
+    /**
+     * The format of an encoded image flavor, such as image/png
+     *
+     * @param f the {@link DataFlavor}
+     * @return the format or {@code null} if the flavor is not an encoded image stream
+     */
+    private String encodedFormat(DataFlavor f) {
+        if (!f.getPrimaryType().equals("image") || !InputStream.class.isAssignableFrom(f.getRepresentationClass())) {
+            return null;
+        }
+        return switch (f.getSubType().toLowerCase()) {
+            case "png" -> "png";
+            case "jpeg", "jpg" -> "jpg";
+            case "gif" -> "gif";
+            default -> null;
+        };
+    }
+
     /**
      * Place a loaded image onto the canvas as a scaled {@link Picture}.
      *
      * @param image the image to add
      * @param format the source format recorded on the {@link ImageItem}
+     * @param data the original encoded image, or {@code null}
      */
-    private void placeImage(Image image, String format) {
+    private void placeImage(Image image, String format, byte[] data) {
         Picture picture = pictureProvider.get();
         picture.moveTo(shift, shift);
         ImageItem item = new ImageItem(image);
         item.setFormat(format);
-        int index = viewProvider.get().setImageItem(item);
+        item.setData(data);
+        int index = viewProvider.get().shareImageItem(item);
         double width = (double) image.getWidth();
         double height = (double) image.getHeight();
         double scale = drawareaProvider.get().fitScale(width, height);
@@ -233,6 +269,8 @@ protected Transferable createTransferable() {
             return null;
         }
         DrawItem data = viewProvider.get().getDrawings().get(selected);
+        // a paste draws its images after the item is cut
+        viewProvider.get().setClipboardItem(data);
         logger.trace("Item createTransferable");
         return new DrawItemTransferable(data);
     }
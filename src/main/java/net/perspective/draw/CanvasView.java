@@ -30,27 +30,42 @@
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.SubScene;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Path;
+import javafx.scene.transform.Rotate;
 import javafx.util.Duration;
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import net.perspective.draw.enums.KeyHandlerType;
 import net.perspective.draw.geom.*;
 import net.perspective.draw.util.CanvasPoint;
 import net.perspective.draw.util.G2;
+import net.perspective.draw.util.GuideIndex;
+import net.perspective.draw.util.RasterLayer;
+import net.perspective.draw.util.SpatialIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,9 +82,24 @@ public class CanvasView {
     private final TextController textController;
     @Inject Dropper dropper;
     @Inject G2 g2;
+    @Inject Provider<ShareUtils> shareProvider;
+    @Inject Provider<Picture> pictureProvider;
+    @Inject Provider<StreetMap> streetMapProvider;
+    @Inject ImageStore imageStore;
     private final List<DrawItem> list;
     private ObservableList<DrawItem> drawings;
     private final List<ImageItem> images;
+    private final Map<String, Integer> imageHashes;     // content hash to image index
+    private final Set<Integer> clipboardImages;
+    private final SpatialIndex spatialIndex;
+    private final GuideIndex guideIndex;
+    private final Map<DrawItem, CanvasPoint> previewMoves;      // keyed by identity
+    private final Map<DrawItem, Rotate> previewRotations;
+    private final RasterLayer rasterLayer;
+    private Rectangle2D viewport;
+    private boolean virtualised;
+    private boolean layered;
+    private final AtomicBoolean trimRequested;
     private Optional<DrawItem> newitem;
     private final Set<Integer> selectionIndex;
     private final Timeline caretTimeline;
@@ -83,6 +113,10 @@ public class CanvasView {
     private boolean isMarquee;
     private boolean hasGuides;
 
+    private static final double HIT_MARGIN = 10.0;    // covers anchor regions and contains() tolerance
+    private static final double VIEWPORT_MARGIN = 256.0;
+    private static final int LAYER_THRESHOLD = 100;   // smaller drawings are composited cheaply
+
     private static final Logger logger = LoggerFactory.getLogger(CanvasView.class.getName());
 
     /**
@@ -95,6 +129,16 @@ public CanvasView(DrawingArea drawarea, ApplicationController controller, TextCo
         this.textController = textController;
         this.list = new ArrayList<>();
         this.images = new ArrayList<>();
+        this.imageHashes = new HashMap<>();
+        this.clipboardImages = new TreeSet<>();
+        this.spatialIndex = new SpatialIndex();
+        this.guideIndex = new GuideIndex();
+        this.previewMoves = new IdentityHashMap<>();
+        this.previewRotations = new IdentityHashMap<>();
+        this.rasterLayer = new RasterLayer();
+        this.virtualised = true;
+        this.layered = true;
+        this.trimRequested = new AtomicBoolean();
         newitem = Optional.empty();
         this.selectionIndex = new LinkedHashSet<>();
         this.drawingAnchors = new Group();
@@ -123,6 +167,8 @@ public void clearView() {
     private void deleteContents() {
         drawings.clear();
         images.clear();
+        imageHashes.clear();
+        clipboardImages.clear();
     }
 
     /**
@@ -132,23 +178,67 @@ public void setDrawingListener() {
         drawings = FXCollections.observableList(list);
         drawings.addListener((ListChangeListener.Change<? extends DrawItem> change) -> {
             while (change.next()) {
+                if (!(change.wasReplaced() && change.getRemovedSize() == change.getAddedSize())) {
+                    // the order of nodes changes
+                    this.endInteraction();
+                }
                 ObservableList<Node> nodes = drawarea.getCanvas().getChildren();
-                int g = (drawarea.isGridVisible() ? 1 : 0);
-                if (hasGuides()) g += 1;
+                int g = this.getNodeOffset();
                 if (change.wasPermutated()) {
                     for (int i = change.getFrom(); i < change.getTo(); ++i) {
-                        // permutate
-                        nodes.set(change.getPermutation(i) + g, drawings.get(i).draw());
+                        // permutate, the node is redrawn without its preview
+                        this.dropPreview(drawings.get(i), null);
+                        nodes.set(change.getPermutation(i) + g, this.drawNode(drawings.get(i)));
                         logger.trace("node " + change.getPermutation(i) + " updated from " + i);
                     }
                 } else if (change.wasUpdated()) {
                     for (int i = change.getFrom(); i < change.getTo(); ++i) {
                         // update item
-                        nodes.set(i + g, drawings.get(i).draw());
+                        spatialIndex.insert(drawings.get(i));
+                        guideIndex.insert(drawings.get(i));
+                        nodes.set(i + g, this.drawNode(drawings.get(i)));
                         logger.trace("node " + i + " updated");
                     }
+                } else if (change.wasReplaced() && change.getRemovedSize() == change.getAddedSize()) {
+                    for (int j = 0; j < change.getAddedSize(); j++) {
+                        // reconcile item, reusing its node where the type is unchanged
+                        int i = change.getFrom() + j;
+                        DrawItem previous = change.getRemoved().get(j);
+                        DrawItem item = drawings.get(i);
+                        Rectangle2D extent = spatialIndex.getExtent(previous);
+                        spatialIndex.remove(previous);
+                        spatialIndex.insert(item);
+                        guideIndex.remove(previous);
+                        guideIndex.insert(item);
+                        Node node = nodes.get(i + g);
+                        if (previous != item) {
+                            // a preview applies to the item replaced
+                            this.dropPreview(previous, node);
+                        }
+                        Node update = this.reconcileNode(previous, item, node);
+                        if (update != node) {
+                            nodes.set(i + g, update);
+                        }
+                        if (rasterLayer.isHidden(node)) {
+                            // static item changed, render its old and new bounds
+                            rasterLayer.replace(node, update);
+                            this.invalidateRaster(extent);
+                            this.invalidateRaster(spatialIndex.getExtent(item));
+                        }
+                        logger.trace("node " + i + " reconciled");
+                    }
                 } else {
                     if (change.wasRemoved()) {
+                        change.getRemoved().forEach(spatialIndex::remove);
+                        if (drawings.isEmpty()) {
+                            // cleared, rather than a removal per item
+                            guideIndex.clear();
+                        } else {
+                            change.getRemoved().forEach(guideIndex::remove);
+                        }
+                        change.getRemoved().forEach(item -> this.dropPreview(item, null));
+                        // removed pictures may leave images undrawn
+                        this.requestTrim();
                         for (int j = 0; j < change.getRemovedSize(); j++) {
                             // remove item
                             nodes.remove(change.getFrom() + g);
@@ -156,10 +246,21 @@ public void setDrawingListener() {
                         }
                     }
                     if (change.wasAdded()) {
+                        // added pictures may share an image
+                        this.requestTrim();
+                        boolean bulk = change.getAddedSize() > 1;
+                        if (bulk) {
+                            // sorted once rather than an insertion per item
+                            guideIndex.insertAll(change.getAddedSubList());
+                        }
                         int i = 0;
                         for (DrawItem additem : change.getAddedSubList()) {
                             // add item
-                            nodes.add(change.getFrom() + i + g, additem.draw());
+                            spatialIndex.insert(additem);
+                            if (!bulk) {
+                                guideIndex.insert(additem);
+                            }
+                            nodes.add(change.getFrom() + i + g, this.drawNode(additem));
                             i++;
                             logger.trace("node added");
                         }
@@ -169,6 +270,151 @@ public void setDrawingListener() {
         });
     }
 
+    /**
+     * Listener operates on the canvas size to attach and detach nodes
+     */
+    public void setViewportListener() {
+        ChangeListener<Number> resize = (ObservableValue<? extends Number> observable, Number oldValue, Number newValue) -> {
+            this.updateViewport();
+        };
+        drawarea.getScene().widthProperty().addListener(resize);
+        drawarea.getScene().heightProperty().addListener(resize);
+        this.updateViewport();
+    }
+
+    /**
+     * Attach only the nodes of items near the viewport, other items are
+     * held by an empty placeholder so that item index maps to node index
+     * 
+     * @param virtualised virtualised rendering
+     */
+    public void setVirtualised(boolean virtualised) {
+        this.virtualised = virtualised;
+        this.updateViewport();
+    }
+
+    /**
+     * Is rendering virtualised
+     * 
+     * @return virtualised rendering
+     */
+    public boolean isVirtualised() {
+        return virtualised;
+    }
+
+    private void updateViewport() {
+        this.endInteraction();
+        SubScene scene = drawarea.getScene();
+        viewport = new Rectangle2D.Double(-VIEWPORT_MARGIN, -VIEWPORT_MARGIN,
+            scene.getWidth() + 2 * VIEWPORT_MARGIN, scene.getHeight() + 2 * VIEWPORT_MARGIN);
+        if (drawings == null) {
+            return;
+        }
+        ObservableList<Node> nodes = drawarea.getCanvas().getChildren();
+        int g = this.getNodeOffset();
+        for (int i = 0; i < drawings.size(); i++) {
+            DrawItem item = drawings.get(i);
+            Node node = nodes.get(i + g);
+            boolean visible = this.isInViewport(item);
+            if (visible && node instanceof Placeholder) {
+                nodes.set(i + g, item.draw());
+            } else if (!visible && !(node instanceof Placeholder)) {
+                nodes.set(i + g, new Placeholder());
+            }
+        }
+        this.requestTrim();
+    }
+
+    private boolean isInViewport(DrawItem item) {
+        return !virtualised || viewport == null || spatialIndex.intersects(item, viewport);
+    }
+
+    private Node drawNode(DrawItem item) {
+        return this.isInViewport(item) ? item.draw() : new Placeholder();
+    }
+
+    private Node reconcileNode(DrawItem previous, DrawItem item, Node node) {
+        if (!this.isInViewport(item)) {
+            return node instanceof Placeholder ? node : new Placeholder();
+        }
+        if (node instanceof Placeholder || !previous.getClass().equals(item.getClass())) {
+            return item.draw();
+        }
+        return item.redraw(node);
+    }
+
+    /**
+     * Rasterise the items outside the selection while the user interacts
+     * with it, so that only the selection is composited each pulse
+     * 
+     * @param layered layered rendering
+     */
+    public void setLayered(boolean layered) {
+        this.layered = layered;
+        if (!layered) {
+            this.endInteraction();
+        }
+    }
+
+    /**
+     * Is rendering layered during interaction
+     * 
+     * @return layered rendering
+     */
+    public boolean isLayered() {
+        return layered;
+    }
+
+    /**
+     * Begin an interaction with the selection, the other items are shown
+     * by a raster backdrop until the interaction ends
+     */
+    public void beginInteraction() {
+        if (!layered || rasterLayer.isActive() || selectionIndex.isEmpty()
+                || drawings.size() < LAYER_THRESHOLD) {
+            return;
+        }
+        ObservableList<Node> nodes = drawarea.getCanvas().getChildren();
+        int g = this.getNodeOffset();
+        List<Node> statics = new ArrayList<>();
+        for (int i = 0; i < drawings.size(); i++) {
+            Node node = nodes.get(i + g);
+            if (!selectionIndex.contains(i) && !(node instanceof Placeholder)) {
+                statics.add(node);
+            }
+        }
+        nodes.add(g, rasterLayer.getBackdrop());
+        rasterLayer.begin(drawarea.getCanvas(), statics, drawarea.getScene().getWidth(), drawarea.getScene().getHeight());
+    }
+
+    /**
+     * End an interaction, the raster backdrop is discarded
+     */
+    public void endInteraction() {
+        if (rasterLayer.isActive()) {
+            rasterLayer.end();
+            drawarea.getCanvas().getChildren().remove(rasterLayer.getBackdrop());
+        }
+    }
+
+    private void invalidateRaster(Rectangle2D extent) {
+        if (extent != null) {
+            rasterLayer.invalidate(drawarea.getCanvas(), extent.getMinX(), extent.getMinY(), extent.getMaxX(), extent.getMaxY());
+        }
+    }
+
+    /**
+     * Holds the place of an item outside the viewport
+     */
+    private static final class Placeholder extends Group {
+
+        Placeholder() {
+            this.setVisible(false);
+            this.setManaged(false);
+            this.setMouseTransparent(true);
+        }
+    }
+
     /**
      * Add item to canvas
      * 
@@ -178,6 +424,16 @@ public void appendItemToCanvas(DrawItem item) {
         drawings.add(item);
     }
 
+    /**
+     * Add several items to canvas in one change, as when a drawing is
+     * opened
+     * 
+     * @param items list of {@link net.perspective.draw.geom.DrawItem}
+     */
+    public void appendItemsToCanvas(List<DrawItem> items) {
+        drawings.addAll(items);
+    }
+
     /**
      * Update the canvas item at given index
      * 
@@ -197,6 +453,7 @@ public void deleteSelectedItem() {
         if (this.getSelected() != -1) {
             drawings.remove(this.getSelected());
             setSelected(-1);
+            this.discardImages();
         }
     }
 
@@ -517,9 +774,72 @@ public int getImageItemsSize() {
      */
     public int setImageItem(ImageItem imageItem) {
         images.add(imageItem);
+        this.requestTrim();
         return images.size() - 1;
     }
 
+    /**
+     * Add image to drawing unless the same image is present, the image of
+     * a map is never shared as it is replaced when the map changes
+     * 
+     * <p>The image is found by its content hash, which should be computed
+     * beforehand off the FX application thread.
+     * 
+     * @param imageItem the {@link net.perspective.draw.ImageItem}
+     * @return image item index
+     */
+    public int shareImageItem(ImageItem imageItem) {
+        String hash = imageItem.getContentHash();
+        Integer index = imageHashes.get(hash);
+        if (index != null && index < images.size() && images.get(index).isSameImage(imageItem)
+                && !this.isMapImage(index)) {
+            logger.debug("Image shared at {}", index);
+            return index;
+        }
+        int added = this.setImageItem(imageItem);
+        imageHashes.put(hash, added);
+        return added;
+    }
+
+    private boolean isMapImage(int index) {
+        Set<Integer> maps = new TreeSet<>();
+        for (DrawItem item : list) {
+            this.collectMaps(item, maps);
+        }
+        return maps.contains(index);
+    }
+
+    /**
+     * Keep the images of an item placed on the clipboard, which a paste
+     * draws again once the item is deleted
+     * 
+     * @param item the {@link net.perspective.draw.geom.DrawItem} copied or cut
+     */
+    public void setClipboardItem(DrawItem item) {
+        clipboardImages.clear();
+        this.collectPictures(item, clipboardImages);
+    }
+
+    private void collectPictures(DrawItem item, Set<Integer> pictures) {
+        if (item instanceof Picture picture) {
+            pictures.add(picture.getImageIndex());
+        } else if (item instanceof Grouped grouped) {
+            for (DrawItem shape : grouped.getDrawItems()) {
+                this.collectPictures(shape, pictures);
+            }
+        }
+    }
+
+    private void collectMaps(DrawItem item, Set<Integer> maps) {
+        if (item instanceof StreetMap map) {
+            maps.add(map.getImageIndex());
+        } else if (item instanceof Grouped grouped) {
+            for (DrawItem shape : grouped.getDrawItems()) {
+                this.collectMaps(shape, maps);
+            }
+        }
+    }
+
     /**
      * Set image at index
      * 
@@ -528,15 +848,21 @@ public int setImageItem(ImageItem imageItem) {
      */
     public void setImageItem(int i, ImageItem imageItem) {
         images.set(i, imageItem);
+        imageHashes.values().remove(i);
     }
 
     /**
-     * Add image to drawing
+     * Add image to drawing, where it may be shared by images added later,
+     * its content hash should be computed beforehand off the FX
+     * application thread
      * 
      * @param imageItem the {@link net.perspective.draw.ImageItem}
      */
     public void addImageItem(ImageItem imageItem) {
         images.add(imageItem);
+        if (!imageItem.isEmpty()) {
+            imageHashes.putIfAbsent(imageItem.getContentHash(), images.size() - 1);
+        }
     }
 
     /**
@@ -549,16 +875,124 @@ public ImageItem getImageItem(int index) {
         return images.get(index);
     }
 
+    /**
+     * Decode the image at index in the background, unless already decoded
+     * 
+     * @param index image item index
+     * @param level the level of the display pyramid
+     * @return a future completed with the image
+     */
+    public CompletableFuture<Image> decodeImage(int index, int level) {
+        CompletableFuture<Image> decoding = images.get(index).decode(shareProvider.get().codec, level);
+        if (!decoding.isDone()) {
+            decoding.thenRun(this::requestTrim);
+        }
+        return decoding;
+    }
+
+    /**
+     * Count the pictures drawing each image and release decoded image
+     * pixels, of images that no picture draws, and over the budget of the
+     * image store of those whose pictures are all outside the viewport
+     * 
+     * @return the {@link net.perspective.draw.ImageStore.Usage} of decoded images
+     */
+    public ImageStore.Usage trimImages() {
+        int[] references = new int[images.size()];
+        boolean[] shown = new boolean[images.size()];
+        for (DrawItem item : list) {
+            this.countPictures(item, this.isInViewport(item), references, shown);
+        }
+        for (int i = 0; i < references.length; i++) {
+            images.get(i).setReferenceCount(references[i]);
+        }
+        return imageStore.trim(images, references, shown);
+    }
+
+    /**
+     * Discard the images that no picture draws and that are not on the
+     * clipboard, once items are deleted on the FX application thread
+     * 
+     * @return the number of images discarded
+     */
+    public int discardImages() {
+        if (!Platform.isFxApplicationThread()) {
+            // the table may be part way through a change
+            return 0;
+        }
+        int[] references = new int[images.size()];
+        boolean[] shown = new boolean[images.size()];
+        boolean[] retained = new boolean[images.size()];
+        for (DrawItem item : list) {
+            this.countPictures(item, false, references, shown);
+        }
+        for (int i = 0; i < retained.length; i++) {
+            retained[i] = clipboardImages.contains(i);
+        }
+        int discarded = imageStore.discard(images, references, retained);
+        imageHashes.values().removeIf(i -> i >= images.size() || images.get(i).isEmpty());
+        return discarded;
+    }
+
+    private void countPictures(DrawItem item, boolean visible, int[] references, boolean[] shown) {
+        if (item instanceof Picture picture) {
+            int index = picture.getImageIndex();
+            if (index >= 0 && index < references.length) {
+                references[index]++;
+                shown[index] |= visible;
+            }
+        } else if (item instanceof Grouped grouped) {
+            for (DrawItem shape : grouped.getDrawItems()) {
+                this.countPictures(shape, visible, references, shown);
+            }
+        }
+    }
+
+    /**
+     * Trim the decoded images on the FX application thread, requests made
+     * before it runs are combined
+     */
+    private void requestTrim() {
+        if (trimRequested.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                trimRequested.set(false);
+                this.trimImages();
+            });
+        }
+    }
+
     /**
      * Replace image at index
      * 
+     * <p>The image item is replaced rather than updated, so that a
+     * snapshot keeps the image it was taken with
+     * 
      * @param index image item index
-     * @param image the {@link net.perspective.draw.ImageItem}
+     * @param image the {@link javafx.scene.image.Image}
      */
     public void replaceImage(int index, Image image) {
         ImageItem item = images.get(index);
-        item.setImage(image);
-        images.set(index, item);
+        ImageItem replacement = new ImageItem(image, item.getFormat(), item.getReferenceCount());
+        replacement.setTimestamp(item.getTimestamp());
+        images.set(index, replacement);
+        imageHashes.values().remove(index);
+    }
+
+    /**
+     * Take a snapshot of the drawings and images for a background worker
+     * 
+     * <p>Call on the FX application thread, the snapshot is then
+     * unaffected by later edits. Every item is encoded, so the time taken,
+     * which is logged, grows with the drawing.
+     * 
+     * @return the {@link net.perspective.draw.DocumentSnapshot}
+     */
+    public DocumentSnapshot snapshot() {
+        long start = System.nanoTime();
+        DocumentSnapshot snapshot = new DocumentSnapshot(list, images, pictureProvider::get, streetMapProvider::get);
+        logger.debug("Snapshot of {} items, {} bytes in {} us", list.size(), snapshot.getCanvas().length,
+            (System.nanoTime() - start) / 1000L);
+        return snapshot;
     }
 
     /**
@@ -618,6 +1052,136 @@ public void moveSelection(int selection) {
         }
     }
 
+    /**
+     * Preview a move of the item at the given index by translating its
+     * node only, the item is moved when the preview is committed
+     * 
+     * @param selection item index
+     * @param xinc x increment
+     * @param yinc y increment
+     */
+    public void previewMove(int selection, double xinc, double yinc) {
+        CanvasPoint offset = previewMoves.computeIfAbsent(drawings.get(selection), k -> new CanvasPoint(0, 0));
+        offset.translate(xinc, yinc);
+        Node node = this.getCanvasNode(selection);
+        node.setTranslateX(offset.x);
+        node.setTranslateY(offset.y);
+        drawingAnchors.setTranslateX(offset.x);
+        drawingAnchors.setTranslateY(offset.y);
+    }
+
+    /**
+     * The pending preview offset of the item at the given index
+     * 
+     * @param selection item index
+     * @return the {@link net.perspective.draw.util.CanvasPoint} offset
+     */
+    public CanvasPoint getPreviewOffset(int selection) {
+        CanvasPoint offset = previewMoves.get(drawings.get(selection));
+        return offset == null ? new CanvasPoint(0, 0) : offset;
+    }
+
+    /**
+     * Preview a rotation of the item at the given index by transforming
+     * its node only, the node is redrawn when the preview is committed
+     * 
+     * @param selection item index
+     * @param theta the angle rotated since the preview began
+     */
+    public void previewRotation(int selection, double theta) {
+        Node node = this.getCanvasNode(selection);
+        CanvasPoint centre = drawings.get(selection).rotationCentre();
+        Rotate rotate = previewRotations.computeIfAbsent(drawings.get(selection), k -> {
+            Rotate r = new Rotate();
+            node.getTransforms().addFirst(r);
+            return r;
+        });
+        // pivot in node coordinates
+        rotate.setPivotX(centre.x - node.getLayoutX());
+        rotate.setPivotY(centre.y - node.getLayoutY());
+        rotate.setAngle(theta * 180 / Math.PI);
+        drawingAnchors.getTransforms().setAll(new Rotate(theta * 180 / Math.PI, centre.x, centre.y));
+    }
+
+    /**
+     * Is a preview pending
+     * 
+     * @return preview pending
+     */
+    public boolean hasPreview() {
+        return !previewMoves.isEmpty() || !previewRotations.isEmpty();
+    }
+
+    /**
+     * Apply pending previews to the items and redraw their nodes
+     */
+    public void commitPreview() {
+        if (!this.hasPreview()) {
+            return;
+        }
+        Map<DrawItem, CanvasPoint> moves = new IdentityHashMap<>(previewMoves);
+        Map<DrawItem, Rotate> rotations = new IdentityHashMap<>(previewRotations);
+        previewMoves.clear();
+        previewRotations.clear();
+        // the items are found by identity, wherever they now lie
+        for (int i = 0; i < drawings.size(); i++) {
+            DrawItem item = drawings.get(i);
+            CanvasPoint offset = moves.get(item);
+            Rotate rotate = rotations.get(item);
+            if (offset == null && rotate == null) {
+                continue;
+            }
+            Node node = this.getCanvasNode(i);
+            node.setTranslateX(0);
+            node.setTranslateY(0);
+            if (rotate != null) {
+                node.getTransforms().remove(rotate);
+            }
+            if (offset != null) {
+                item.moveTo(offset.x, offset.y);
+            }
+            this.updateCanvasItem(i, item);
+        }
+        this.moveSelection(this.getSelected());
+    }
+
+    /**
+     * Discard the preview of an item that is no longer drawn at its place
+     * 
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     * @param node the node previewed, or null if it is discarded
+     */
+    private void dropPreview(DrawItem item, Node node) {
+        CanvasPoint offset = previewMoves.remove(item);
+        Rotate rotate = previewRotations.remove(item);
+        if (offset == null && rotate == null) {
+            return;
+        }
+        if (node != null) {
+            node.setTranslateX(0);
+            node.setTranslateY(0);
+            if (rotate != null) {
+                node.getTransforms().remove(rotate);
+            }
+        }
+        if (drawingAnchors != null) {
+            drawingAnchors.setTranslateX(0);
+            drawingAnchors.setTranslateY(0);
+            drawingAnchors.getTransforms().clear();
+        }
+    }
+
+    private Node getCanvasNode(int index) {
+        return drawarea.getCanvas().getChildren().get(index + this.getNodeOffset());
+    }
+
+    private int getNodeOffset() {
+        int g = (drawarea.isGridVisible() ? 1 : 0);
+        if (hasGuides()) g += 1;
+        if (rasterLayer.isActive()) g += 1;
+        return g;
+    }
+
     /**
      * Provide a cursor whilst editing text
      * 
@@ -716,14 +1280,64 @@ public boolean isMultiSelected() {
     public void selectShapes(DrawItem item) {
         Shape b = item.bounds();
         Rectangle2D boundary = b.getBounds2D();
-        for (DrawItem drawing : drawings) {
-            Rectangle2D d = drawing.bounds().getBounds2D();
-            if (boundary.contains(d)) {
-                this.setSelected(drawings.indexOf(drawing));
+        Set<DrawItem> candidates = spatialIndex.query(boundary);
+        for (int i = 0; i < drawings.size(); i++) {
+            DrawItem drawing = drawings.get(i);
+            if (candidates.contains(drawing)) {
+                Rectangle2D d = drawing.bounds().getBounds2D();
+                if (boundary.contains(d)) {
+                    this.setSelected(i);
+                }
             }
         }
     }
 
+    /**
+     * Return the indices of the items that may lie under a point, in
+     * front to back order so that the topmost item is tested first
+     * 
+     * <p>Candidates are drawn from the spatial index, hit-testing of 
+     * each candidate remains the responsibility of the caller
+     * 
+     * @param x canvas coordinate
+     * @param y canvas coordinate
+     * @return list of drawing indices
+     */
+    public List<Integer> getItemsAt(double x, double y) {
+        List<Integer> hits = new ArrayList<>();
+        Set<DrawItem> candidates = spatialIndex.query(x, y, HIT_MARGIN);
+        if (!candidates.isEmpty()) {
+            for (int i = list.size() - 1; i >= 0; i--) {
+                if (candidates.contains(list.get(i))) {
+                    hits.add(i);
+                    if (hits.size() == candidates.size()) {
+                        break;
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Return the items whose indexed extent intersects the given region
+     *
+     * @param region the {@link java.awt.geom.Rectangle2D}
+     * @return an identity set of candidate items
+     */
+    public Set<DrawItem> getItemsIn(Rectangle2D region) {
+        return spatialIndex.query(region);
+    }
+
+    /**
+     * Return the index of item alignment coordinates used for guides
+     *
+     * @return the {@link net.perspective.draw.util.GuideIndex}
+     */
+    public GuideIndex getGuideIndex() {
+        return guideIndex;
+    }
+
     /**
      * Initialise the given editing mode defined by KeyboardHandlerType
      * 
@@ -886,6 +1500,16 @@ public boolean hasGuides() {
      * @return bounding {@link net.perspective.draw.util.CanvasPoint}
      */
     public CanvasPoint[] getBounds() {
+        return getBounds(list);
+    }
+
+    /**
+     * Calculate the bounds of a list of items
+     * 
+     * @param list the list of {@link net.perspective.draw.geom.DrawItem}
+     * @return bounding {@link net.perspective.draw.util.CanvasPoint}
+     */
+    static CanvasPoint[] getBounds(List<DrawItem> list) {
         CanvasPoint topleft, bottomright;
 
         List<CanvasPoint> points = new ArrayList<>();
@@ -0,0 +1,219 @@
+/*
+ * DocumentSnapshot.java
+ *
+ * Created on Oct 17, 2026 7:38:51 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Grouped;
+import net.perspective.draw.geom.Picture;
+import net.perspective.draw.geom.StreetMap;
+import net.perspective.draw.serialise.BinaryCanvasReader;
+import net.perspective.draw.serialise.BinaryCanvasWriter;
+import net.perspective.draw.util.CanvasPoint;
+
+/**
+ * A copy of the drawing taken for a background save or export
+ *
+ * <p>The items are held in the binary canvas encoding and are decoded on
+ * first use by the worker. Items are changed in place while editing, so
+ * this is not copy on write: every item is encoded on the FX application
+ * thread, a single pass whose cost is linear in the items and their
+ * points, and without the allocation of copying the items themselves.
+ * The image table is copied but not the image items, which are replaced
+ * rather than changed once added to a drawing, so that editing may
+ * continue while the snapshot is written. Workers must not change the
+ * image items, which remain shared with the canvas.
+ *
+ * @author ctipper
+ */
+
+public class DocumentSnapshot {
+
+    private final byte[] canvas;
+    private final List<ImageItem> images;
+    private final Supplier<Picture> pictures;
+    private final Supplier<StreetMap> streetMaps;
+    private List<DrawItem> drawings;
+
+    /**
+     * Creates a new instance of <code>DocumentSnapshot</code>
+     *
+     * @param drawings the list of {@link net.perspective.draw.geom.DrawItem}
+     * @param images the list of {@link net.perspective.draw.ImageItem}
+     * @param pictures supplies {@link net.perspective.draw.geom.Picture} instances
+     * @param streetMaps supplies {@link net.perspective.draw.geom.StreetMap} instances
+     */
+    DocumentSnapshot(List<DrawItem> drawings, List<ImageItem> images,
+            Supplier<Picture> pictures, Supplier<StreetMap> streetMaps) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64 * drawings.size() + 16);
+        try {
+            new BinaryCanvasWriter(bos).write(drawings);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.canvas = bos.toByteArray();
+        this.images = Collections.unmodifiableList(new ArrayList<>(images));
+        this.pictures = pictures;
+        this.streetMaps = streetMaps;
+    }
+
+    /**
+     * Get the items in the binary canvas encoding, which must not be modified
+     *
+     * @return the encoded items
+     */
+    public byte[] getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Get the image table
+     *
+     * @return list of {@link net.perspective.draw.ImageItem}
+     */
+    public List<ImageItem> getImageItems() {
+        return images;
+    }
+
+    /**
+     * Get copies of the items, whose pictures draw from the image table
+     * of the snapshot
+     *
+     * @return list of {@link net.perspective.draw.geom.DrawItem}
+     */
+    public synchronized List<DrawItem> getDrawings() {
+        if (drawings == null) {
+            drawings = Collections.unmodifiableList(
+                this.read(() -> this.attach(pictures.get()), () -> this.attach(streetMaps.get())));
+        }
+        return drawings;
+    }
+
+    private List<DrawItem> read(Supplier<Picture> pictureSupplier, Supplier<StreetMap> streetMapSupplier) {
+        try {
+            return new BinaryCanvasReader(new ByteArrayInputStream(canvas),
+                pictureSupplier, streetMapSupplier).read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T extends Picture> T attach(T picture) {
+        picture.setImageTable(images);
+        return picture;
+    }
+
+    /**
+     * Drop the images that no picture draws, including pictures within
+     * groups, and merge images with the same content, so that each unique
+     * image is stored once, compacting the image table and renumbering the
+     * pictures. Map images are never merged, as a map replaces its image.
+     * 
+     * @return a compacted snapshot, or this snapshot if every image is drawn
+     * and none is repeated
+     */
+    public DocumentSnapshot compact() {
+        boolean[] referenced = new boolean[images.size()];
+        boolean[] mapped = new boolean[images.size()];
+        for (DrawItem item : this.getDrawings()) {
+            forEachPicture(item, picture -> {
+                int index = picture.getImageIndex();
+                if (index >= 0 && index < referenced.length) {
+                    referenced[index] = true;
+                    mapped[index] |= picture instanceof StreetMap;
+                }
+            });
+        }
+        int[] remap = new int[images.size()];
+        List<ImageItem> kept = new ArrayList<>(images.size());
+        List<Integer> shared = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            if (!referenced[i]) {
+                continue;
+            }
+            ImageItem image = images.get(i);
+            int same = -1;
+            if (!mapped[i]) {
+                for (int k : shared) {
+                    if (kept.get(k).isSameImage(image)) {
+                        same = k;
+                        break;
+                    }
+                }
+            }
+            if (same >= 0) {
+                remap[i] = same;
+            } else {
+                remap[i] = kept.size();
+                if (!mapped[i]) {
+                    shared.add(kept.size());
+                }
+                kept.add(image);
+            }
+        }
+        if (kept.size() == images.size()) {
+            return this;
+        }
+
+        // renumber fresh copies, those of this snapshot remain unchanged
+        List<DrawItem> items = this.read(pictures, streetMaps);
+        for (DrawItem item : items) {
+            forEachPicture(item, picture -> {
+                int index = picture.getImageIndex();
+                if (index >= 0 && index < remap.length) {
+                    picture.setImageIndex(remap[index]);
+                }
+            });
+        }
+        return new DocumentSnapshot(items, kept, pictures, streetMaps);
+    }
+
+    private static void forEachPicture(DrawItem item, Consumer<Picture> action) {
+        if (item instanceof Picture picture) {
+            action.accept(picture);
+        } else if (item instanceof Grouped grouped) {
+            for (DrawItem shape : grouped.getDrawItems()) {
+                forEachPicture(shape, action);
+            }
+        }
+    }
+
+    /**
+     * Calculate the bounds of the items
+     *
+     * @return bounding {@link net.perspective.draw.util.CanvasPoint}
+     */
+    public CanvasPoint[] getBounds() {
+        return CanvasView.getBounds(this.getDrawings());
+    }
+
+}
@@ -50,6 +50,7 @@
 import net.perspective.draw.text.Editor;
 import net.perspective.draw.util.G2;
 import net.perspective.draw.util.SVGRead;
+import net.perspective.draw.workers.BundleWorker;
 import net.perspective.draw.workers.ImageLoadWorker;
 import net.perspective.draw.workers.PDFWorker;
 import net.perspective.draw.workers.PNGWorker;
@@ -120,6 +121,8 @@ public interface DrawAppComponent {
 
     void inject(PNGWorker pngWorker);
 
+    void inject(BundleWorker bundleWorker);
+
     void inject(CanvasTransferHandler canvasTransferHandler);
 
     FxAppComponent.Builder fxApp();
@@ -195,6 +198,8 @@ public interface DrawAppComponent {
 
     PNGWorker providePngWorker();
 
+    BundleWorker provideBundleWorker();
+
     G2 g2();
 
     SVGRead svgRead();
@@ -53,6 +53,8 @@
 import net.perspective.draw.text.TextEditor;
 import net.perspective.draw.util.G2;
 import net.perspective.draw.util.SVGRead;
+import net.perspective.draw.util.TaskScheduler;
+import net.perspective.draw.workers.BundleWorker;
 import net.perspective.draw.workers.ImageLoadWorker;
 import net.perspective.draw.workers.PDFWorker;
 import net.perspective.draw.workers.PNGWorker;
@@ -68,6 +70,34 @@
 @Module(subcomponents = {FxAppComponent.class})
 public class DrawAppModule {
 
+    private final TaskScheduler scheduler;
+
+    /**
+     * Creates a new instance of <code>DrawAppModule</code> with its own
+     * {@link net.perspective.draw.util.TaskScheduler}
+     */
+    public DrawAppModule() {
+        this(null);
+    }
+
+    /**
+     * Creates a new instance of <code>DrawAppModule</code>
+     * 
+     * @param scheduler a scheduler shared by several graphs, or null for its own
+     */
+    public DrawAppModule(TaskScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Provides
+    @Singleton
+    TaskScheduler provideTaskScheduler() {
+        if (scheduler != null) {
+            return scheduler;
+        }
+        return new TaskScheduler(Runtime.getRuntime().availableProcessors(), 4);
+    }
+
     @Provides
     @Singleton
     Gesticulate provideGesticulate() {
@@ -259,8 +289,8 @@ TextController provideTextController(Provider<DrawingArea> drawareaProvider, Pro
     @Provides
     @Singleton
     ShareUtils provideShareUtils(Provider<Gesticulate> applicationProvider, CanvasView view, ApplicationController controller,
-            DrawAppComponent component) {
-        ShareUtils shareUtils = new ShareUtils(applicationProvider, view, controller);
+            TaskScheduler scheduler, DrawAppComponent component) {
+        ShareUtils shareUtils = new ShareUtils(applicationProvider, view, controller, scheduler);
         component.inject(shareUtils);
         return shareUtils;
     }
@@ -310,6 +340,13 @@ PNGWorker providePNGWorker(CanvasView view, ApplicationController controller, Dr
         return pngWorker;
     }
 
+    @Provides
+    BundleWorker provideBundleWorker(CanvasView view, ApplicationController controller, DrawAppComponent component) {
+        BundleWorker bundleWorker = new BundleWorker(view, controller);
+        component.inject(bundleWorker);
+        return bundleWorker;
+    }
+
     @Provides
     @Singleton
     G2 provideG2(Provider<DrawingArea> drawareaProvider, Provider<ApplicationController> controllerProvider,
@@ -144,6 +144,7 @@ void init(double width, double height) {
         canvas = new SubScene(root, width, height);
         canvas.setFill(Color.web(controller.getThemeBackgroundColor()));
         viewProvider.get().setDrawingListener();
+        viewProvider.get().setViewportListener();
         viewProvider.get().enableRichText(true);
         this.prepareDrawing();
         this.setDrawType(DrawingType.SKETCH);
@@ -74,6 +74,7 @@ public class Gesticulate extends Application {
     @Inject Provider<DrawingArea> drawareaProvider;
     @Inject KeyListener keylistener;
     @Inject ShareUtils share;
+    @Inject ImageStore imageStore;
     private Stage stage;
     private Properties userPrefs;
 
@@ -170,6 +171,19 @@ public void start(final Stage primaryStage) throws Exception {
         controller.adjustThemeFillColor(canvasColor);
         drawareaProvider.get().setTheme();
 
+        // limit the memory held by decoded images, in megabytes
+        var imageBudget = this.userPrefs.getProperty("imageBudget");
+        if (imageBudget != null) {
+            try {
+                imageStore.setBudget(Long.parseLong(imageBudget.trim()) << 20);
+            } catch (NumberFormatException ex) {
+                logger.warn("Invalid image budget {}", imageBudget);
+            }
+        }
+
+        // save in the format read by earlier versions
+        share.setLegacyFormat(Boolean.parseBoolean(this.userPrefs.getProperty("legacyFormat")));
+
         // Install the canvas
         pane.setContent(drawareaProvider.get().getScene());
         this.setOnResize(pane);
@@ -23,20 +23,56 @@
  */
 package net.perspective.draw;
 
+import java.awt.image.BufferedImage;
 import java.beans.ConstructorProperties;
 import java.beans.Transient;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 /**
+ * 
+ * <p>An image held as its original encoding is decoded for display at the
+ * size shown, from a pyramid of levels each half the size of the one
+ * before. The full resolution is decoded for export and not kept unless
+ * it is shown.
  * 
  * @author ctipper
  */
 
 public class ImageItem {
 
-    private transient Image image;
+    /**
+     * The number of levels in the display pyramid
+     */
+    public static final int LEVELS = 4;
+
+    private transient volatile Image image;
+    private transient volatile byte[] data;     // original encoded image
+    private transient final AtomicReferenceArray<Image> levels = new AtomicReferenceArray<>(LEVELS);   // decoded from data for display
+    private transient final Map<Integer, CompletableFuture<Image>> decodings = new HashMap<>();
+    private transient volatile int pixelWidth, pixelHeight;     // size of the encoded image
+    private transient volatile long lastShown;  // time a level was last shown
+    private transient volatile String contentHash;  // digest of the encoding or pixels
+    private transient volatile WeakReference<BufferedImage> buffered;  // AWT conversion
     private String format;          // gif, jpg or png
     private int referenceCount;     // count of usage
     private Instant timestamp;      // creation or update time
@@ -71,7 +107,8 @@ public ImageItem(Image image, String format, int count) {
      * @param item 
      */
     public ImageItem(ImageItem item) {
-        this(item.getImage(), item.getFormat(), item.getReferenceCount());
+        this(item.image, item.getFormat(), item.getReferenceCount());
+        this.data = item.getData();
         item.setTimestamp(timestamp);
     }
 
@@ -84,7 +121,8 @@ public ImageItem(ImageItem item) {
      * @param offset 
      */
     public ImageItem(ImageItem item, long offset) {
-        this(item.getImage(), item.getFormat(), item.getReferenceCount());
+        this(item.image, item.getFormat(), item.getReferenceCount());
+        this.data = item.getData();
         timestamp = Instant.ofEpochMilli(Instant.now().toEpochMilli() + offset);
         item.setTimestamp(timestamp);
     }
@@ -130,23 +168,416 @@ public int getReferenceCount() {
     }
 
     /**
-     * Set the image
+     * Set the image, discarding any original encoded data
      * 
      * @param image
      */
     @Transient
-    public void setImage(Image image) {
+    public synchronized void setImage(Image image) {
         this.image = image;
+        this.data = null;
+        this.contentHash = null;
+        for (int level = 0; level < LEVELS; level++) {
+            levels.set(level, null);
+        }
+        this.decodings.clear();
+        this.buffered = null;
     }
 
     /**
-     * Get the image
+     * Get the image at full resolution, decoding the encoded data unless
+     * it is shown at full resolution
      * 
      * @return
      */
     @Transient
     public Image getImage() {
-        return image;
+        Image img = image;
+        if (img == null && data != null) {
+            img = levels.get(0);
+            if (img == null) {
+                img = this.decodeImage(0);
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Get the image for display at a level of the pyramid, decoding the
+     * level and keeping it if it is not yet decoded
+     * 
+     * @param level the level, 0 for full resolution
+     * @return the image, at full resolution where not encoded
+     */
+    @Transient
+    public Image getImage(int level) {
+        lastShown = System.nanoTime();
+        Image img = image;
+        if (img == null && data != null) {
+            img = this.decodeLevel(level);
+        }
+        return img;
+    }
+
+    /**
+     * Get the time a level of the pyramid was last shown
+     * 
+     * @return the {@link java.lang.System#nanoTime()} when last shown
+     */
+    @Transient
+    public long getLastShown() {
+        return lastShown;
+    }
+
+    /**
+     * Get the memory held by decoded pixels
+     * 
+     * @return the size in bytes
+     */
+    @Transient
+    public long getDecodedSize() {
+        long size = 0L;
+        Image img = image;
+        if (img != null) {
+            size += pixelSize(img);
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            Image decoded = levels.get(level);
+            if (decoded != null) {
+                size += pixelSize(decoded);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the memory held by the original encoding
+     * 
+     * @return the size in bytes, or 0 if not encoded
+     */
+    @Transient
+    public long getEncodedSize() {
+        byte[] bytes = data;
+        return bytes != null ? bytes.length : 0L;
+    }
+
+    /**
+     * Is there neither an image nor an encoding, as for an image discarded
+     * from the table
+     * 
+     * @return a boolean property
+     */
+    @Transient
+    public boolean isEmpty() {
+        return image == null && data == null;
+    }
+
+    private static long pixelSize(Image img) {
+        // images are held as 32 bit pixels
+        return 4L * (long) img.getWidth() * (long) img.getHeight();
+    }
+
+    /**
+     * Can the decoded pixels be released, to be decoded again from the
+     * original encoding when next required
+     * 
+     * @return a boolean property
+     */
+    @Transient
+    public boolean isReleasable() {
+        return data != null;
+    }
+
+    /**
+     * Release the decoded pixels, keeping the original encoding
+     * 
+     * @return the size released in bytes
+     */
+    public synchronized long release() {
+        if (data == null) {
+            return 0L;
+        }
+        long size = this.getDecodedSize();
+        this.image = null;
+        for (int level = 0; level < LEVELS; level++) {
+            levels.set(level, null);
+        }
+        this.buffered = null;
+        return size;
+    }
+
+    /**
+     * Choose the smallest level of the pyramid at least as wide as shown
+     * 
+     * @param width the width shown in pixels
+     * @return the level, 0 for full resolution
+     */
+    public int getLevel(double width) {
+        if (image != null || data == null) {
+            return 0;
+        }
+        int full = this.getPixelWidth();
+        int level = 0;
+        while (level < LEVELS - 1 && (full >> (level + 1)) >= width) {
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Get the width of the image at full resolution, read from the encoded
+     * data without decoding it
+     * 
+     * @return the width in pixels, or 0 if unknown
+     */
+    @Transient
+    public int getPixelWidth() {
+        Image img = image;
+        if (img != null) {
+            return (int) img.getWidth();
+        }
+        this.readSize();
+        return pixelWidth;
+    }
+
+    /**
+     * Get the height of the image at full resolution, read from the
+     * encoded data without decoding it
+     * 
+     * @return the height in pixels, or 0 if unknown
+     */
+    @Transient
+    public int getPixelHeight() {
+        Image img = image;
+        if (img != null) {
+            return (int) img.getHeight();
+        }
+        this.readSize();
+        return pixelHeight;
+    }
+
+    private void readSize() {
+        byte[] bytes = data;
+        if (pixelWidth > 0 || bytes == null) {
+            return;
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(in, true, true);
+                    pixelHeight = reader.getHeight(0);
+                    pixelWidth = reader.getWidth(0);
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException e) {
+            // unknown size, the full resolution is shown
+        }
+    }
+
+    /**
+     * Get the image converted for AWT rendering, the conversion is kept
+     * while it is in use, and should not be modified
+     * 
+     * @return the {@link java.awt.image.BufferedImage} or null if there is no image
+     */
+    @Transient
+    public BufferedImage getBufferedImage() {
+        WeakReference<BufferedImage> ref = buffered;
+        BufferedImage img = ref != null ? ref.get() : null;
+        if (img == null) {
+            // convert with the decoders rather than holding the item
+            synchronized (levels) {
+                ref = buffered;
+                img = ref != null ? ref.get() : null;
+                Image fximage = this.getImage();
+                if (img == null && fximage != null) {
+                    img = SwingFXUtils.fromFXImage(fximage, null);
+                    buffered = new WeakReference<>(img);
+                }
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Is the image available without decoding
+     * 
+     * @return a boolean property
+     */
+    @Transient
+    public boolean isDecoded() {
+        return this.isDecoded(0);
+    }
+
+    /**
+     * Is the level of the pyramid available without decoding
+     * 
+     * @param level the level, 0 for full resolution
+     * @return a boolean property
+     */
+    public boolean isDecoded(int level) {
+        return image != null || data == null || levels.get(level) != null;
+    }
+
+    /**
+     * Decode the image in the background, the same future is returned
+     * while decoding is pending
+     * 
+     * @param executor the {@link java.util.concurrent.Executor}
+     * @return a future completed with the image
+     */
+    public CompletableFuture<Image> decode(Executor executor) {
+        return this.decode(executor, 0);
+    }
+
+    /**
+     * Decode a level of the pyramid in the background, the same future is
+     * returned while decoding is pending
+     * 
+     * @param executor the {@link java.util.concurrent.Executor}
+     * @param level the level, 0 for full resolution
+     * @return a future completed with the image
+     */
+    public synchronized CompletableFuture<Image> decode(Executor executor, int level) {
+        if (this.isDecoded(level)) {
+            return CompletableFuture.completedFuture(this.getImage(level));
+        }
+        return decodings.computeIfAbsent(level,
+            l -> CompletableFuture.supplyAsync(() -> this.getImage(l), executor));
+    }
+
+    private Image decodeLevel(int level) {
+        Image img = levels.get(level);
+        if (img == null) {
+            // decode one level at a time without holding the item
+            synchronized (levels) {
+                img = levels.get(level);
+                if (img == null) {
+                    img = this.decodeImage(level);
+                    levels.set(level, img);
+                }
+            }
+            synchronized (this) {
+                decodings.remove(level);
+            }
+        }
+        return img;
+    }
+
+    private Image decodeImage(int level) {
+        byte[] bytes = data;
+        if (bytes == null) {
+            return image;
+        }
+        if (level == 0 || this.getPixelWidth() <= 0) {
+            return new Image(new ByteArrayInputStream(bytes));
+        }
+        // the decoder subsamples to the requested size
+        int width = Math.max(1, this.getPixelWidth() >> level);
+        int height = Math.max(1, this.getPixelHeight() >> level);
+        return new Image(new ByteArrayInputStream(bytes), width, height, true, true);
+    }
+
+    /**
+     * Set the encoded image, which is saved in place of the image, without
+     * an image it is decoded when first required
+     * 
+     * <p>Where there is an image the encoding is of its pixels, and a
+     * digest already computed is kept.
+     * 
+     * @param data the encoded bytes of the image, or null
+     */
+    @Transient
+    public void setData(byte[] data) {
+        this.data = data;
+        if (image == null) {
+            this.contentHash = null;
+        }
+    }
+
+    /**
+     * Is this the same image as another, comparing the digests of their
+     * content unless their sizes differ
+     * 
+     * @param item the {@link net.perspective.draw.ImageItem}
+     * @return a boolean property
+     */
+    public boolean isSameImage(ImageItem item) {
+        if (item == this) {
+            return true;
+        }
+        if (this.isEmpty() || item.isEmpty()) {
+            return false;
+        }
+        Image img = image, otherImage = item.image;
+        if (img != null && otherImage != null
+                && (img.getWidth() != otherImage.getWidth() || img.getHeight() != otherImage.getHeight())) {
+            return false;
+        }
+        byte[] bytes = data, other = item.data;
+        if (contentHash == null && item.contentHash == null
+                && bytes != null && other != null && bytes.length != other.length) {
+            // both digests would be of the encodings
+            return false;
+        }
+        return this.getContentHash().equals(item.getContentHash());
+    }
+
+    /**
+     * Get the SHA-256 digest of the encoded bytes, or of the pixels where
+     * the image is not encoded, computed when first required. The digest
+     * is kept when the image is later encoded, so it does not change while
+     * the content is the same.
+     * 
+     * @return the digest as hexadecimal
+     */
+    @Transient
+    public String getContentHash() {
+        String hash = contentHash;
+        if (hash == null) {
+            hash = HexFormat.of().formatHex(this.digest());
+            contentHash = hash;
+        }
+        return hash;
+    }
+
+    private byte[] digest() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] bytes = data;
+        if (bytes != null) {
+            return digest.digest(bytes);
+        }
+        Image img = image;
+        PixelReader reader = img != null ? img.getPixelReader() : null;
+        if (reader != null) {
+            // a row at a time rather than copying the whole image
+            int width = (int) img.getWidth();
+            byte[] row = new byte[4 * width];
+            for (int y = 0; y < (int) img.getHeight(); y++) {
+                reader.getPixels(0, y, width, 1, PixelFormat.getByteBgraInstance(), row, 0, row.length);
+                digest.update(row);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Get the encoded image
+     * 
+     * @return the encoded bytes of the image, or null
+     */
+    @Transient
+    public byte[] getData() {
+        return data;
     }
 
     /**
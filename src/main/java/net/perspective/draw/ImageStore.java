@@ -0,0 +1,203 @@
+/*
+ * ImageStore.java
+ *
+ * Created on Oct 17, 2026 8:52:14 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the decoded pixels of the image table within a memory budget
+ *
+ * <p>The decoded pixels of images that no picture draws are released,
+ * and where the budget is exceeded those of images whose pictures are all
+ * outside the viewport, least recently shown first. Images keep their
+ * original encoding and are decoded again when next shown. Images
+ * without an encoding, and those shown, are never released.
+ *
+ * <p>Images that no picture draws, and that are not on the clipboard, are
+ * discarded with their original encoding only when asked, as when items
+ * are deleted, and the table is shortened where they end it.
+ *
+ * @author ctipper
+ */
+
+@Singleton
+public class ImageStore {
+
+    private volatile long budget;
+    private volatile Usage usage;
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class.getName());
+
+    /**
+     * The memory held by decoded images
+     *
+     * @param decoded the size of decoded pixels in bytes
+     * @param encoded the size of original encodings in bytes
+     * @param budget the budget in bytes
+     * @param images the number of images
+     * @param decodedImages the number of images holding decoded pixels
+     * @param referencedImages the number of images drawn by a picture
+     */
+    public record Usage(long decoded, long encoded, long budget, int images, int decodedImages, int referencedImages) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d of %d MB decoded for %d of %d images, %d in use, %d MB encoded",
+                decoded >> 20, budget >> 20, decodedImages, images, referencedImages, encoded >> 20);
+        }
+    }
+
+    /**
+     * Creates a new instance of <code>ImageStore</code> with a budget of
+     * a quarter of the maximum heap
+     */
+    @Inject
+    public ImageStore() {
+        this.budget = Runtime.getRuntime().maxMemory() / 4;
+        this.usage = new Usage(0L, 0L, budget, 0, 0, 0);
+    }
+
+    /**
+     * Set the memory budget for decoded pixels
+     *
+     * @param budget the budget in bytes
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Get the memory budget for decoded pixels
+     *
+     * @return the budget in bytes
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Get the usage found when last trimmed
+     *
+     * @return the {@link net.perspective.draw.ImageStore.Usage}
+     */
+    public Usage getUsage() {
+        return usage;
+    }
+
+    /**
+     * Discard the images that no picture draws and that are not retained,
+     * call on the thread that changes the image table and its pictures
+     *
+     * <p>A discarded image is replaced by an empty item rather than
+     * cleared, as a snapshot being written may still hold it. Empty items
+     * at the end of the table are removed.
+     *
+     * @param images the image table
+     * @param references the number of pictures drawing each image
+     * @param retained whether each image is kept while undrawn, as when on the clipboard
+     * @return the number of images discarded
+     */
+    public int discard(List<ImageItem> images, int[] references, boolean[] retained) {
+        int discarded = 0;
+        for (int i = 0; i < images.size(); i++) {
+            ImageItem item = images.get(i);
+            if (references[i] == 0 && !retained[i] && !item.isEmpty()) {
+                ImageItem empty = new ImageItem(item.getTimestamp());
+                empty.setFormat(item.getFormat());
+                images.set(i, empty);
+                discarded++;
+            }
+        }
+        int size = images.size();
+        while (size > 0 && references[size - 1] == 0 && !retained[size - 1] && images.get(size - 1).isEmpty()) {
+            size--;
+        }
+        if (size < images.size()) {
+            images.subList(size, images.size()).clear();
+        }
+        if (discarded > 0) {
+            logger.debug("Discarded {} undrawn images, {} remain", discarded, images.size());
+        }
+        return discarded;
+    }
+
+    /**
+     * Release the decoded pixels of images that no picture draws, then of
+     * hidden images while the usage exceeds the budget
+     *
+     * @param images the image table
+     * @param references the number of pictures drawing each image
+     * @param shown whether a picture of each image is in the viewport
+     * @return the {@link net.perspective.draw.ImageStore.Usage} after release
+     */
+    public Usage trim(List<ImageItem> images, int[] references, boolean[] shown) {
+        long limit = budget;
+        long decoded = 0L;
+        List<Integer> releasable = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            ImageItem item = images.get(i);
+            long decodedSize = item.getDecodedSize();
+            decoded += decodedSize;
+            if (decodedSize > 0 && item.isReleasable() && !shown[i]) {
+                releasable.add(i);
+            }
+        }
+        // unreferenced images first, then least recently shown
+        releasable.sort(Comparator.<Integer, Boolean>comparing(i -> references[i] > 0)
+            .thenComparingLong(i -> images.get(i).getLastShown()));
+        long before = decoded;
+        for (int i : releasable) {
+            if (references[i] > 0 && decoded <= limit) {
+                break;
+            }
+            decoded -= images.get(i).release();
+        }
+        if (decoded < before) {
+            logger.debug("Released {} MB of decoded images", (before - decoded) >> 20);
+        }
+
+        long encoded = 0L;
+        int decodedImages = 0, referencedImages = 0;
+        for (int i = 0; i < images.size(); i++) {
+            encoded += images.get(i).getEncodedSize();
+            if (images.get(i).getDecodedSize() > 0) {
+                decodedImages++;
+            }
+            if (references[i] > 0) {
+                referencedImages++;
+            }
+        }
+        usage = new Usage(decoded, encoded, limit, images.size(), decodedImages, referencedImages);
+        logger.trace("Image store: {}", usage);
+        return usage;
+    }
+
+}
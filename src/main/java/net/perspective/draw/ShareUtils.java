@@ -32,12 +32,14 @@
 import java.util.Optional;
 import java.util.TimeZone;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import javafx.stage.FileChooser;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import net.perspective.draw.util.FileUtils;
+import net.perspective.draw.util.TaskScheduler;
+import net.perspective.draw.util.TaskScheduler.Priority;
+import net.perspective.draw.workers.BundleWorker;
 import net.perspective.draw.workers.ImageLoadWorker;
 import net.perspective.draw.workers.PDFWorker;
 import net.perspective.draw.workers.PNGWorker;
@@ -66,23 +68,51 @@ public class ShareUtils {
     @Inject Provider<PDFWorker> pdfWorkerProvider;
     @Inject Provider<SVGWorker> svgWorkerProvider;
     @Inject Provider<PNGWorker> pngWorkerProvider;
+    @Inject Provider<BundleWorker> bundleWorkerProvider;
     private ImageLoadWorker imageLoader;
     private List<File> imageFiles;
     private File canvasfile;
+    private boolean legacyFormat;
     private final double margin;
-    public final ExecutorService executor;
+    public final TaskScheduler scheduler;
+    public final ExecutorService executor;  // I/O and waiting, on virtual threads
+    public final ExecutorService codec;     // interactive image decode, bounded to the cores
+    public final ExecutorService render;    // export rendering and encoding, after interactive work
 
     private static final Logger logger = LoggerFactory.getLogger(ShareUtils.class.getName());
 
     @Inject
-    public ShareUtils(Provider<Gesticulate> applicationProvider, CanvasView view, ApplicationController controller) {
+    public ShareUtils(Provider<Gesticulate> applicationProvider, CanvasView view, ApplicationController controller,
+            TaskScheduler scheduler) {
         this.applicationProvider = applicationProvider;
         this.view = view;
         this.controller = controller;
-        this.executor = Executors.newCachedThreadPool();
+        this.scheduler = scheduler;
+        this.executor = scheduler.io();
+        this.codec = scheduler.cpu(Priority.INTERACTIVE);
+        this.render = scheduler.cpu(Priority.BACKGROUND);
         this.margin = 5.0;  // half max stroke width
     }
 
+    /**
+     * Return the margin added around exports
+     *
+     * @return the margin in points
+     */
+    public double getMargin() {
+        return margin;
+    }
+
+    /**
+     * Save drawings as XML, readable by earlier versions, rather than in
+     * the binary canvas encoding
+     *
+     * @param legacyFormat write content/canvas.xml
+     */
+    public void setLegacyFormat(boolean legacyFormat) {
+        this.legacyFormat = legacyFormat;
+    }
+
     /**
      * Reset the canvas file reference
      */
@@ -155,8 +185,8 @@ public void readPictures(List<File> files) {
         if (this.getImageFiles() != null) {
             imageLoader = imageLoadWorkerProvider.get();
             controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
-            controller.setProgressIndeterminate();
-            executor.submit(imageLoader);
+            controller.getProgressProperty().bind(imageLoader.progressProperty());
+            scheduler.submit(null, imageLoader);
         }
         controller.setSelectionMode();
     }
@@ -174,7 +204,7 @@ public void readSVGMarkup(String markup) {
             svgLoader.setMarkup(markup);
             controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
             controller.setProgressIndeterminate();
-            executor.submit(svgLoader);
+            scheduler.submit(null, svgLoader);
         }
         controller.setSelectionMode();
     }
@@ -260,7 +290,8 @@ public void readCanvas(File file) {
         this.canvasfile = file;
         controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
         controller.getProgressProperty().bind(reader.progressProperty());
-        executor.submit(reader);
+        // a later open supersedes one yet to start
+        scheduler.submit(ReadInFunnel.class, reader);
     }
 
     /**
@@ -271,10 +302,14 @@ public void readCanvas(File file) {
     public void writeCanvas(File file) {
         WriteOutStreamer streamer = writeOutStreamerProvider.get();
         streamer.setFile(file);
+        streamer.setLegacyFormat(legacyFormat);
+        // copy the drawing so that editing may continue while it is written
+        streamer.setSnapshot(view.snapshot());
         this.canvasfile = file;
         controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
         controller.getProgressProperty().bind(streamer.progressProperty());
-        executor.submit(streamer);
+        // a later write to the file supersedes one yet to start
+        scheduler.submit(file.getAbsoluteFile(), streamer);
     }
 
     /**
@@ -304,9 +339,10 @@ public void exportPDF() {
         PDFWorker pdfWorker = pdfWorkerProvider.get();
         pdfWorker.setFile(file);
         pdfWorker.setMargin(this.margin);
+        pdfWorker.setSnapshot(view.snapshot());
         controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
         controller.setProgressIndeterminate();
-        executor.submit(pdfWorker);
+        scheduler.submit(file.getAbsoluteFile(), pdfWorker);
     }
 
     /**
@@ -336,9 +372,10 @@ public void exportSVG() {
         SVGWorker svgWorker = svgWorkerProvider.get();
         svgWorker.setFile(file);
         svgWorker.setMargin(this.margin);
+        svgWorker.setSnapshot(view.snapshot());
         controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
         controller.setProgressIndeterminate();
-        executor.submit(svgWorker);
+        scheduler.submit(file.getAbsoluteFile(), svgWorker);
     }
 
     /**
@@ -369,9 +406,39 @@ public void exportPNG() {
         pngWorker.setFile(file);
         pngWorker.setOpacity(false);
         pngWorker.setMargin(this.margin);
+        pngWorker.setSnapshot(view.snapshot());
+        controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
+        controller.setProgressIndeterminate();
+        scheduler.submit(file.getAbsoluteFile(), pngWorker);
+    }
+
+    /**
+     * Export drawing to PNG, SVG and PDF, named after the chosen file
+     */
+    public void exportBundle() {
+        // Detect empty canvas
+        if (view.getDrawings().isEmpty()) {
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        String userDirectoryString = System.getProperty("user.home");
+        File userDirectory = new File(userDirectoryString);
+        chooser.setInitialDirectory(userDirectory);
+        chooser.setTitle("Export All...");
+        File result = chooser.showSaveDialog(applicationProvider.get().getStage());
+        if (result == null) {
+            return;
+        }
+
+        BundleWorker bundleWorker = bundleWorkerProvider.get();
+        bundleWorker.setFile(result);
+        bundleWorker.setOpacity(false);
+        bundleWorker.setMargin(this.margin);
+        bundleWorker.setSnapshot(view.snapshot());
         controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
         controller.setProgressIndeterminate();
-        executor.submit(pngWorker);
+        scheduler.submit(result.getAbsoluteFile(), bundleWorker);
     }
 
     /**
@@ -400,9 +467,10 @@ public void snapshotPNG() {
         PNGWorker pngWorker = pngWorkerProvider.get();
         pngWorker.setFile(file);
         pngWorker.setMargin(this.margin);
+        pngWorker.setSnapshot(view.snapshot());
         controller.getProgressVisibleProperty().setValue(Boolean.TRUE);
         controller.setProgressIndeterminate();
-        executor.submit(pngWorker);
+        scheduler.submit(file.getAbsoluteFile(), pngWorker);
     }
 
 }
@@ -23,6 +23,10 @@
  */
 package net.perspective.draw.event;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javafx.animation.AnimationTimer;
 import javafx.scene.SubScene;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
@@ -32,6 +36,7 @@
 import javafx.scene.input.ZoomEvent;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import net.perspective.draw.util.CanvasPoint;
 
 /**
  * 
@@ -49,10 +54,27 @@ public class DrawAreaListener {
     private boolean dragged;
     private double wheel;
     private boolean snapEnabled;
+    private boolean pendingDrag, pendingHover;
+    private final List<CanvasPoint> samples;     // raw drag samples since the last dispatch
+    private final List<CanvasPoint> dispatched;
+    private final AnimationTimer pulse;
 
     /** Creates a new instance of <code>DrawAreaMouseListener</code> */
     @Inject
     public DrawAreaListener() {
+        this.samples = new ArrayList<>();
+        this.dispatched = new ArrayList<>();
+        /**
+         * drag and hover events are coalesced, dispatched at most once
+         * per pulse with the latest co-ordinates
+         */
+        this.pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+                this.stop();
+            }
+        };
     }
 
     public void setEventHandler(Handler handler) {
@@ -96,12 +118,32 @@ public void initializeHandlers(SubScene canvas) {
         });
     }
 
+    /**
+     * Dispatch pending drag and hover events
+     */
+    public void flush() {
+        if (pendingDrag) {
+            pendingDrag = false;
+            dispatched.clear();
+            dispatched.addAll(samples);
+            samples.clear();
+            handler.dragEvent();
+            dispatched.clear();
+        }
+        if (pendingHover) {
+            pendingHover = false;
+            handler.hoverEvent();
+        }
+    }
+
     protected void mouseUp(MouseEvent me) {
+        this.flush();
         this.rightbutton = MouseButton.SECONDARY == me.getButton();
         handler.upEvent();
     }
 
     protected void mouseDown(MouseEvent me) {
+        this.flush();
         startX = me.getX();
         startY = me.getY();
         this.rightbutton = MouseButton.SECONDARY == me.getButton();
@@ -110,6 +152,7 @@ protected void mouseDown(MouseEvent me) {
     }
 
     protected void mouseClicked(MouseEvent me) {
+        this.flush();
         tempX = me.getX();
         tempY = me.getY();
         this.leftbutton = MouseButton.PRIMARY == me.getButton();
@@ -121,21 +164,26 @@ protected void mouseClicked(MouseEvent me) {
     protected void mouseHover(MouseEvent me) {
         tempX = me.getX();
         tempY = me.getY();
-        handler.hoverEvent();
+        pendingHover = true;
+        pulse.start();
     }
 
     protected void mouseDragged(MouseEvent me) {
         tempX = me.getX();
         tempY = me.getY();
         this.dragged = true;
-        handler.dragEvent();
+        samples.add(new CanvasPoint(tempX, tempY));
+        pendingDrag = true;
+        pulse.start();
     }
 
     protected void touchEnd(TouchEvent te) {
+        this.flush();
         handler.upEvent();
     }
 
     protected void touchStart(TouchEvent te) {
+        this.flush();
         TouchPoint touch = te.getTouchPoints().get(0);
         startX = touch.getX();
         startY = touch.getY();
@@ -153,10 +201,13 @@ protected void touchMoved(TouchEvent te) {
         TouchPoint touch = te.getTouchPoints().get(0);
         tempX = touch.getX();
         tempY = touch.getY();
-        handler.dragEvent();
+        samples.add(new CanvasPoint(tempX, tempY));
+        pendingDrag = true;
+        pulse.start();
     }
 
     protected void scrollEvent(ScrollEvent se) {
+        this.flush();
         tempX = se.getX();
         tempY = se.getY();
         this.wheel = se.getDeltaY() > 1 ? .1 : se.getDeltaY() < -1 ? -.1 : 0;
@@ -164,6 +215,7 @@ protected void scrollEvent(ScrollEvent se) {
     }
 
     protected void zoomEvent(ZoomEvent ze) {
+        this.flush();
         tempX = ze.getX();
         tempY = ze.getY();
         this.wheel = ze.getZoomFactor() - 1;
@@ -222,6 +274,16 @@ public double getWheel() {
         return this.wheel;
     }
 
+    /**
+     * The raw drag samples coalesced into the current drag event, the
+     * last sample is the current co-ordinate
+     * 
+     * @return the samples in order of arrival
+     */
+    public List<CanvasPoint> getSamples() {
+        return Collections.unmodifiableList(dispatched);
+    }
+
     /**
      * Snap to guides is enabled
      * 
@@ -55,6 +55,7 @@ public class RotationHandler implements Handler {
     private final CanvasView view;
     @Inject DrawAreaListener listener;
     private double omega;
+    private double alpha;
     private final Map<CanvasPoint, Area> regionCache = new HashMap<>();
 
     /**
@@ -68,6 +69,9 @@ public RotationHandler(DrawingArea drawarea, CanvasView view) {
 
     @Override
     public void upEvent() {
+        // nodes previewed during the drag are redrawn once
+        view.endInteraction();
+        view.commitPreview();
         if (view.getSelected() != -1) {
             view.updateSelectedItem();
         }
@@ -78,8 +82,7 @@ public void downEvent() {
         view.setSelected(-1);
         List<DrawItem> drawings = view.getDrawings();
         if (!drawings.isEmpty()) {
-            int i = drawings.size() - 1;
-            do {
+            for (int i : view.getItemsAt(listener.getStartX(), listener.getStartY())) {
                 DrawItem item = drawings.get(i);
                 if ((item instanceof Figure) && !(((Figure) item).getType().equals(FigureType.LINE))
                         || (item instanceof Text)
@@ -108,11 +111,11 @@ public void downEvent() {
                         break;
                     }
                 }
-                i--;
-            } while (i >= 0);
+            }
         }
         if (view.getSelected() != -1) {
             omega = view.getDrawings().get(view.getSelected()).getAngle();
+            alpha = omega;
         }
     }
 
@@ -153,6 +156,7 @@ public void dragEvent() {
         CanvasPoint A, B;
 
         if (view.getSelected() != -1) {
+            view.beginInteraction();
             int selection = view.getSelected();
             DrawItem item = view.getDrawings().get(selection);
             CanvasPoint centre = item.rotationCentre();
@@ -185,8 +189,13 @@ public void dragEvent() {
             }
 
             item.updateProperties(drawarea);
-            view.updateCanvasItem(selection, item);
-            view.moveSelection(selection);
+            if (item instanceof Figure figure && figure.getType().equals(FigureType.LINE)) {
+                view.updateCanvasItem(selection, item);
+                view.moveSelection(selection);
+            } else {
+                // rotate the node only, the item is redrawn on release
+                view.previewRotation(selection, item.getAngle() - alpha);
+            }
             listener.setStartX(listener.getTempX());
             listener.setStartY(listener.getTempY());
         }
@@ -24,8 +24,11 @@
 package net.perspective.draw.event;
 
 import java.awt.BasicStroke;
-import java.util.ArrayList;
+import java.awt.Shape;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import javafx.scene.Cursor;
 import javafx.scene.paint.Color;
 import javax.inject.Inject;
@@ -47,11 +50,13 @@
 import net.perspective.draw.geom.DrawItem;
 import net.perspective.draw.geom.Figure;
 import net.perspective.draw.geom.FigureFactory;
+import net.perspective.draw.geom.FigureType;
 import net.perspective.draw.geom.Grouped;
 import net.perspective.draw.geom.Picture;
 import net.perspective.draw.geom.StreetMap;
 import net.perspective.draw.geom.Text;
 import net.perspective.draw.util.CanvasPoint;
+import net.perspective.draw.util.GuideIndex;
 
 /**
  * Handles selection of items on the canvas
@@ -73,13 +78,13 @@ public class SelectionHandler implements Handler {
     @Inject Provider<MapItemBehaviour> mapItemBehaviourProvider;
     @Inject Provider<PictureItemBehaviour> pictureItemBehaviourProvider;
     @Inject Provider<GroupedItemBehaviour> groupedItemBehaviourProvider;
-    private List<Double> coordsX, coordsY;
-    private List<Double> midX, midY;
+    private Set<DrawItem> guideExclusions;
 
     // Following fields apply to marquee
     private static final BasicStroke marqueeStroke = new BasicStroke(1.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
     private static final Color marqueeColor = Color.rgb(204, 102, 255);         // Light blue
     private static final Color fillColor = Color.rgb(48, 96, 255);              // Dark blue
+    private static final double GUIDE_TOLERANCE = 1.0;
 
     /**
      * Creates a new instance of <code>SelectionHandler</code> 
@@ -97,6 +102,9 @@ public SelectionHandler(DrawingArea drawarea, CanvasView view, ApplicationContro
 
     @Override
     public void upEvent() {
+        // moves previewed during the drag are applied once
+        view.endInteraction();
+        view.commitPreview();
         if (view.isMarquee()) {
             view.setMarquee(false);
             drawarea.setMultiSelectEnabled(true);
@@ -115,6 +123,8 @@ public void upEvent() {
     @Override
     public void downEvent() {
         List<DrawItem> drawings = view.getDrawings();
+        // exclusions belong to a single gesture
+        guideExclusions = null;
         if (view.isEditing()) {
             // Text isEditing code here
             if (!listener.getRightClick()) {
@@ -126,9 +136,8 @@ public void downEvent() {
             }
         } else {
             if (!drawings.isEmpty() && !listener.getRightClick()) {
-                int i = drawings.size() - 1;
                 context.setContainment(ContainsType.NONE);
-                do {
+                for (int i : view.getItemsAt(listener.getStartX(), listener.getStartY())) {
                     DrawItem item = drawings.get(i);
                     if (item instanceof Figure) {
                         context.setBehaviour(figureItemBehaviourProvider.get());
@@ -162,8 +171,7 @@ public void downEvent() {
                         context.setContainment(ContainsType.SHAPE);
                         break;
                     }
-                    i--;
-                } while (i >= 0);
+                }
                 if (context.getContainment().equals(ContainsType.NONE) && (!view.isMultiSelected() || !drawarea.isMultiSelectEnabled())) {
                     view.setSelected(-1);
                 }
@@ -177,20 +185,18 @@ public void downEvent() {
             }
         }
         /**
-         * setup data structures for guides
+         * setup exclusions for guides
          */
-        if (view.getSelected() != -1 && !listener.isSnapEnabled() && drawarea.isGuideEnabled() && drawings.size() < 15) {
-            coordsX = new ArrayList<>();
-            coordsY = new ArrayList<>();
-            midX = new ArrayList<>();
-            midY = new ArrayList<>();
+        if (view.getSelected() != -1 && !listener.isSnapEnabled() && drawarea.isGuideEnabled()) {
+            guideExclusions = Collections.newSetFromMap(new IdentityHashMap<>());
             DrawItem item = drawings.get(view.getSelected());
             if (item != null) {
-                for (var drawing : drawings) {
-                    if (drawings.indexOf(drawing) != view.getSelected()) {
-                        if (!item.bounds().intersects(drawing.bounds().getBounds2D())) {
-                            computeCoords(drawing);
-                        }
+                // the selection moves, items it overlaps are not aligned to
+                view.getMultiSelection().forEach(i -> guideExclusions.add(drawings.get(i)));
+                Shape bounds = item.bounds();
+                for (DrawItem drawing : view.getItemsIn(bounds.getBounds2D())) {
+                    if (bounds.intersects(drawing.bounds().getBounds2D())) {
+                        guideExclusions.add(drawing);
                     }
                 }
             }
@@ -217,8 +223,7 @@ public void clickEvent() {
         if (listener.doubleClicked()) {
             List<DrawItem> drawings = view.getDrawings();
             if (!drawings.isEmpty()) {
-                int i = drawings.size() - 1;
-                do {
+                for (int i : view.getItemsAt(listener.getTempX(), listener.getTempY())) {
                     DrawItem item = drawings.get(i);
                     if (item.contains(listener.getTempX(), listener.getTempY())) {
                         if (item instanceof Text) {
@@ -231,8 +236,7 @@ public void clickEvent() {
                             break;
                         }
                     }
-                    i--;
-                } while (i >= 0);
+                }
             }
         }
     }
@@ -266,9 +270,14 @@ public void hoverEvent() {
     @Override
     public void dragEvent() {
         if (view.getSelected() != -1) {
+            view.beginInteraction();
             double xinc = listener.getTempX() - listener.getStartX();
             double yinc = listener.getTempY() - listener.getStartY();
 
+            if (listener.isSnapEnabled()) {
+                // snapped moves operate on item geometry
+                view.commitPreview();
+            }
             for (Integer selection : view.getMultiSelection()) {
                 DrawItem item = view.getDrawings().get(selection);
 
@@ -278,63 +287,28 @@ public void dragEvent() {
 
                 if (listener.isSnapEnabled()) {
                     context.setOmega(context.getOmega().getX() + xinc, context.getOmega().getY() + yinc);
-                } else if (drawarea.isGuideEnabled() && view.getDrawings().size() < 15) {
+                } else if (drawarea.isGuideEnabled() && guideExclusions != null) {
                     drawarea.resetGuides();
-                    // compute bounds X
-                    Double topX = item.getTop()[0].getX();
-                    Double upX = item.getUp()[0].getX();
-                    Double downX = item.getDown()[0].getX();
-                    Double botX = item.getBottom()[0].getX();
-                    // compute min max
-                    Double minx = minimum(topX, upX, downX, botX);
-                    Double maxx = maximum(topX, upX, downX, botX);
-                    // compute mid
-                    Double midx = (minx + maxx) / 2;
-                    // compute bounds Y
-                    Double topY = item.getTop()[0].getY();
-                    Double upY = item.getUp()[0].getY();
-                    Double downY = item.getDown()[0].getY();
-                    Double botY = item.getBottom()[0].getY();
-                    // compute min max
-                    Double miny = minimum(topY, upY, downY, botY);
-                    Double maxy = maximum(topY, upY, downY, botY);
-                    // compute mid
-                    Double midy = (miny + maxy) / 2;
+                    CanvasPoint offset = view.getPreviewOffset(selection);
+                    double[] extent = GuideIndex.extentOf(item);
+                    double minx = extent[0] + offset.x, maxx = extent[2] + offset.x;
+                    double miny = extent[1] + offset.y, maxy = extent[3] + offset.y;
                     boolean added = false;
-                    for (var coord : coordsX) {
-                        if (minx.intValue() == coord.intValue()) {
-                            drawarea.addGuide(false, minx);
-                            added = true;
-                        }
-                        if (maxx.intValue() == coord.intValue()) {
-                            drawarea.addGuide(false, maxx);
-                            added = true;
-                        }
-                    }
-                    for (var coord : coordsY) {
-                        if (miny.intValue() == coord.intValue()) {
-                            drawarea.addGuide(true, miny);
-                            added = true;
-                        }
-                        if (maxy.intValue() == coord.intValue()) {
-                            drawarea.addGuide(true, maxy);
-                            added = true;
-                        }
-                    }
-                    for (var coord : midX) {
-                        if (midx.intValue() == coord.intValue()) {
-                            drawarea.addGuide(false, midx);
-                            added = true;
-                        }
-                    }
-                    for (var coord : midY) {
-                        if (midy.intValue() == coord.intValue()) {
-                            drawarea.addGuide(true, midy);
-                            added = true;
-                        }
-                    }
+                    added |= this.addGuide(GuideIndex.Guide.EDGE_X, minx);
+                    added |= this.addGuide(GuideIndex.Guide.EDGE_X, maxx);
+                    added |= this.addGuide(GuideIndex.Guide.EDGE_Y, miny);
+                    added |= this.addGuide(GuideIndex.Guide.EDGE_Y, maxy);
+                    added |= this.addGuide(GuideIndex.Guide.CENTRE_X, (minx + maxx) / 2);
+                    added |= this.addGuide(GuideIndex.Guide.CENTRE_Y, (miny + maxy) / 2);
                     view.setGuides(added);
                 }
+                if (!listener.isSnapEnabled() && this.isPreviewed(item)) {
+                    // translate the node only, the item is moved on release
+                    drawarea.getScene().getRoot().setCursor(Cursor.CLOSED_HAND);
+                    item.updateProperties(drawarea);
+                    view.previewMove(selection, xinc, yinc);
+                    continue;
+                }
                 if (item instanceof Text) {
                     if (!view.isEditing()) {
                         if (listener.isSnapEnabled()) {
@@ -399,45 +373,39 @@ public void dragEvent() {
     public void zoomEvent() {
     }
 
-    private void computeCoords(DrawItem item) {
-        // compute bounds X
-        Double topX = item.getTop()[0].getX();
-        Double upX = item.getUp()[0].getX();
-        Double downX = item.getDown()[0].getX();
-        Double botX = item.getBottom()[0].getX();
-        // compute min mid max
-        Double minx = minimum(topX, upX, downX, botX);
-        coordsX.add(minx);
-        Double maxx = maximum(topX, upX, downX, botX);
-        coordsX.add(maxx);
-        // compute mid
-        midX.add((minx + maxx) / 2);
-        // compute bounds Y
-        Double topY = item.getTop()[0].getY();
-        Double upY = item.getUp()[0].getY();
-        Double downY = item.getDown()[0].getY();
-        Double botY = item.getBottom()[0].getY();
-        // compute min mid max
-        Double miny = minimum(topY, upY, downY, botY);
-        coordsY.add(miny);
-        Double maxy = maximum(topY, upY, downY, botY);
-        coordsY.add(maxy);
-        // compute mid
-        midY.add((miny + maxy) / 2);
+    /**
+     * Add a guide where another item aligns with the given coordinate
+     * 
+     * @param guide the {@link net.perspective.draw.util.GuideIndex.Guide}
+     * @param value coordinate of the dragged item
+     * @return a guide was added
+     */
+    private boolean addGuide(GuideIndex.Guide guide, double value) {
+        double p = view.getGuideIndex().nearest(guide, value, GUIDE_TOLERANCE, guideExclusions);
+        if (Double.isNaN(p)) {
+            return false;
+        }
+        boolean xy = guide == GuideIndex.Guide.EDGE_Y || guide == GuideIndex.Guide.CENTRE_Y;
+        drawarea.addGuide(xy, p);
+        return true;
     }
 
-    private Double minimum(Double a, Double b, Double c, Double d) {
-        Double min1 = Math.min(a, b);
-        Double min2 = Math.min(c, d);
-        Double min3 = Math.min(min1, min2);
-        return min3;
+    /**
+     * Can a plain move of the item be previewed on its node
+     * 
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     * @return a move is previewed
+     */
+    private boolean isPreviewed(DrawItem item) {
+        return switch (item) {
+            case Text text -> !view.isEditing();
+            case StreetMap map -> false;
+            case Figure figure -> context.getContainment().equals(ContainsType.SHAPE)
+                    && !figure.getType().equals(FigureType.LINE);
+            case Picture picture -> context.getContainment().equals(ContainsType.SHAPE);
+            case Grouped grouped -> context.getContainment().equals(ContainsType.SHAPE);
+            default -> false;
+        };
     }
 
-     private Double maximum(Double a, Double b, Double c, Double d) {
-         Double max1 = Math.max(a, b);
-         Double max2 = Math.max(c, d);
-         Double max3 = Math.max(max1, max2);
-         return max3;
-     }
-
 }
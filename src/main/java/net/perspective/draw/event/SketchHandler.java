@@ -23,6 +23,7 @@
  */
 package net.perspective.draw.event;
 
+import java.util.List;
 import javafx.scene.paint.Color;
 import javax.inject.Inject;
 import net.perspective.draw.CanvasView;
@@ -33,6 +34,8 @@
 import net.perspective.draw.geom.Figure;
 import net.perspective.draw.geom.FigureFactory;
 import net.perspective.draw.geom.FigureType;
+import net.perspective.draw.geom.SketchFitter;
+import net.perspective.draw.util.CanvasPoint;
 
 /**
  * 
@@ -45,6 +48,7 @@ public class SketchHandler implements Handler  {
     private final CanvasView view;
     @Inject DrawAreaListener listener;
     @Inject FigureFactory figurefactory;
+    private final SketchFitter fitter;
 
     /**
      * Creates a new instance of <code>SketchHandler</code> 
@@ -53,6 +57,7 @@ public class SketchHandler implements Handler  {
     public SketchHandler(DrawingArea drawarea, CanvasView view) {
         this.drawarea = drawarea;
         this.view = view;
+        this.fitter = new SketchFitter();
     }
 
     @Override
@@ -64,6 +69,9 @@ public void upEvent() {
         // add figure to canvas
         Figure item = (Figure) view.getNewItem().get();
         item.setEndPoints();
+        // final fit over all points
+        item.setPath();
+        fitter.reset();
         item.updateProperties(drawarea);
         view.setNewItem(item);
         view.resetNewItem();
@@ -82,6 +90,7 @@ public void downEvent() {
         item.addPoint(listener.getStartX(), listener.getStartY());
         item.setEndPoints();
     	item.setPath();
+        fitter.reset();
         view.setNewItem(item);
         view.setDrawing(true);
     }
@@ -109,9 +118,22 @@ public void dragEvent() {
                 item = arrow;
             }
         }        // continue sketch
-        item.addPoint(listener.getTempX(), listener.getTempY());
+        List<CanvasPoint> samples = listener.getSamples();
+        if (samples.isEmpty()) {
+            item.addPoint(listener.getTempX(), listener.getTempY());
+        } else {
+            // every raw sample since the last pulse
+            for (CanvasPoint sample : samples) {
+                item.addPoint(sample.x, sample.y);
+            }
+        }
         item.setEndPoints();
-        item.setPath();
+        if (SketchFitter.accepts(item)) {
+            // refit the tail only
+            fitter.fit(item);
+        } else {
+            item.setPath();
+        }
         view.setNewItem(item);
     }
 
@@ -27,6 +27,7 @@
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
 import java.beans.ConstructorProperties;
 import java.beans.Transient;
 import java.io.IOException;
@@ -224,6 +225,27 @@ public void setPath() {
         line.setPath();
     }
 
+    /**
+     * Set a provisional path whilst the line is being sketched
+     * 
+     * @param path the {@link java.awt.geom.Path2D.Double}
+     */
+    @Override
+    public void setSketchPath(Path2D.Double path) {
+        line.setSketchPath(path);
+    }
+
+    /**
+     * Set a provisional prefix and tail whilst the line is being sketched
+     *
+     * @param path the {@link java.awt.geom.Path2D.Double} prefix
+     * @param tail the {@link java.awt.geom.Path2D.Double} tail or null
+     */
+    @Override
+    public void setSketchPath(Path2D.Double path, Path2D.Double tail) {
+        line.setSketchPath(path, tail);
+    }
+
     /**
      * Returns the path describing the figure
      * 
@@ -402,22 +424,12 @@ public Node draw() {
 
         at = this.getTransform();
 
-        Path2D.Double e = getTransformedEndDecoratorPath();
-        Path fxpath = drawPath(e, at);
-        fxpath.setStroke(getColor());
-        fxpath.setStrokeWidth(getLineWidth((BasicStroke) getStroke()));
-        fxpath.setStrokeLineJoin(javafx.scene.shape.StrokeLineJoin.ROUND);
-        fxpath.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
-        fxpath.setFill(getColor());
+        Path fxpath = drawPath(getTransformedEndDecoratorPath(), at);
+        this.applyDecoratorStyle(fxpath);
         group.getChildren().add(fxpath);
         if (getArrowType() == ArrowType.BOTH) {
-            Path2D.Double s = getTransformedStartDecoratorPath();
-            Path fxpath_2 = drawPath(s, at);
-            fxpath_2.setStroke(getColor());
-            fxpath_2.setStrokeWidth(getLineWidth((BasicStroke) getStroke()));
-            fxpath_2.setStrokeLineJoin(javafx.scene.shape.StrokeLineJoin.ROUND);
-            fxpath_2.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
-            fxpath_2.setFill(getColor());
+            Path fxpath_2 = drawPath(getTransformedStartDecoratorPath(), at);
+            this.applyDecoratorStyle(fxpath_2);
             group.getChildren().add(fxpath_2);
         }
         group.setCursor(javafx.scene.Cursor.OPEN_HAND);
@@ -425,6 +437,44 @@ public Node draw() {
         return group;
     }
 
+    /**
+     * Update the group previously provided by draw in place
+     * 
+     * @param node the {@link javafx.scene.Node}
+     * @return the {@link javafx.scene.Node}
+     */
+    @Override
+    public Node redraw(Node node) {
+        int count = getArrowType() == ArrowType.BOTH ? 3 : 2;
+        if (!(node instanceof Group group) || group.getChildren().size() != count
+                || !group.getChildren().stream().skip(1).allMatch(Path.class::isInstance)) {
+            return this.draw();
+        }
+        List<Node> children = group.getChildren();
+        Node lineNode = line.redraw(children.get(0));
+        if (lineNode != children.get(0)) {
+            children.set(0, lineNode);
+        }
+        java.awt.geom.AffineTransform at = this.getTransform();
+        Path fxpath = (Path) children.get(1);
+        updatePath(fxpath, getTransformedEndDecoratorPath(), at);
+        this.applyDecoratorStyle(fxpath);
+        if (count == 3) {
+            Path fxpath_2 = (Path) children.get(2);
+            updatePath(fxpath_2, getTransformedStartDecoratorPath(), at);
+            this.applyDecoratorStyle(fxpath_2);
+        }
+        return group;
+    }
+
+    private void applyDecoratorStyle(Path fxpath) {
+        fxpath.setStroke(getColor());
+        fxpath.setStrokeWidth(getLineWidth((BasicStroke) getStroke()));
+        fxpath.setStrokeLineJoin(javafx.scene.shape.StrokeLineJoin.ROUND);
+        fxpath.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
+        fxpath.setFill(getColor());
+    }
+
     /**
      * Render the item anchors to indicate selection
      * 
@@ -437,6 +487,24 @@ public Node drawAnchors(DrawingArea drawarea) {
         return anchors;
     }
 
+    /**
+     * Returns the transformed extent of the stroked line and decorators
+     * 
+     * @return a transformed rectangle
+     */
+    @Override
+    public Rectangle2D paintBounds() {
+        Rectangle2D extent = line.paintBounds();
+        Path2D.Double decorators = getTransformedEndDecoratorPath();
+        if (getArrowType() == ArrowType.BOTH) {
+            decorators.append(getTransformedStartDecoratorPath(), false);
+        }
+        Path2D.Double painted = new Path2D.Double(getArrowStroke().createStrokedShape(decorators));
+        painted.append(decorators, false);
+        extent.add(this.getTransform().createTransformedShape(painted).getBounds2D());
+        return extent;
+    }
+
     /**
      * Draw to a Java2d canvas for export
      * 
@@ -570,8 +638,7 @@ private List<CanvasPoint> P_1() {
         double[] pt1 = { 0, 0, 0, 0, 0, 0 };
         List<CanvasPoint> P1 = new ArrayList<>();
 
-        Path2D.Double p = this.getPath();
-        PathIterator iterator = p.getPathIterator(new AffineTransform());
+        PathIterator iterator = line.getPathIterator(new AffineTransform());
         for (int i = 0; i < 2; i++) {
             if (!iterator.isDone()) {
                 iterator.currentSegment(pt1);
@@ -593,8 +660,7 @@ private List<CanvasPoint> P_2() {
         double[] pt1 = { 0, 0, 0, 0, 0, 0 };
         List<CanvasPoint> P2 = new ArrayList<>();
 
-        Path2D.Double p = this.getPath();
-        PathIterator iterator = p.getPathIterator(new AffineTransform());
+        PathIterator iterator = line.getPathIterator(new AffineTransform());
         int i = 0;
         while (!iterator.isDone()) {
             iterator.currentSegment(pt1);
@@ -27,6 +27,7 @@
 
 import java.awt.Graphics2D;
 import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
 import javafx.scene.Node;
 import net.perspective.draw.DrawingArea;
 import net.perspective.draw.util.CanvasPoint;
@@ -89,6 +90,17 @@ public interface DrawItem {
      */
     Shape bounds();
 
+    /**
+     * Returns the transformed extent of the item as painted, including
+     * strokes and decorations, the default implementation is the extent
+     * of the boundary
+     * 
+     * @return a transformed rectangle
+     */
+    default Rectangle2D paintBounds() {
+        return this.bounds().getBounds2D();
+    }
+
     /**
      * Detect if a point lies within the bounds, a convenience method
      * 
@@ -172,6 +184,17 @@ public interface DrawItem {
      */
     Node draw();
 
+    /**
+     * Update a node previously provided by draw in place, the default
+     * implementation provides a new node
+     *
+     * @param node the {@link javafx.scene.Node} on the FX canvas
+     * @return the given node if reused, otherwise a new {@link javafx.scene.Node}
+     */
+    default Node redraw(Node node) {
+        return this.draw();
+    }
+
     /**
      * Render the item anchors to indicate selection
      * 
@@ -118,6 +118,19 @@ public void setPath() {
         }
     }
 
+    /**
+     * Only vectors and polygons are closed
+     *
+     * @return a boolean property
+     */
+    @Override
+    protected boolean isClosedType() {
+        return switch (this.getType()) {
+            case VECTOR, POLYGON -> true;
+            default -> false;
+        };
+    }
+
     /**
      * Returns the 2-tuple of top-left corner location (transformed)
      * the second point may be normalised
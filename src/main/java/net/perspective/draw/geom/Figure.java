@@ -38,6 +38,8 @@
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javafx.scene.Cursor;
 import javafx.scene.Group;
 import javafx.scene.Node;
@@ -62,6 +64,7 @@ public class Figure implements DrawItem, Serializable {
     protected FigureType type;
     protected transient Path2D.Double path;
     protected transient boolean pathDirty;
+    private transient Path2D.Double sketchTail, sketchPath;
     protected transient PointFactory pointfactory;
     protected transient PathFactory pathfactory;
     protected transient Stroke stroke;
@@ -73,6 +76,9 @@ public class Figure implements DrawItem, Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final Map<AwtColorKey, java.awt.Color> awtColors = new ConcurrentHashMap<>();
+    private static final int AWT_COLORS_LIMIT = 4096;
+
     /** Creates a new instance of <code>Figure</code> */
     public Figure() {
         this.type = FigureType.NONE;
@@ -235,9 +241,56 @@ public void setPath() {
     public void setPath(Path2D.Double path) {
         this.path = path;
         this.pathDirty = false;
+        this.sketchTail = null;
+        this.sketchPath = null;
         this.setClosed(true);
     }
 
+    /**
+     * Restore a saved path, the figure is closed as its type requires
+     *
+     * @param path the {@link java.awt.geom.Path2D.Double}
+     */
+    public void restorePath(Path2D.Double path) {
+        this.setPath(path);
+        this.setClosed(this.isClosedType());
+    }
+
+    /**
+     * Is a figure of this type closed, and so filled
+     *
+     * @return a boolean property
+     */
+    protected boolean isClosedType() {
+        return true;
+    }
+
+    /**
+     * Set a provisional path whilst the figure is being sketched, leaving the
+     * closed property unchanged. The path is refitted from the points on the
+     * next call to {@link #setPath()}.
+     *
+     * @param path the {@link java.awt.geom.Path2D.Double}
+     */
+    public void setSketchPath(Path2D.Double path) {
+        this.setSketchPath(path, null);
+    }
+
+    /**
+     * Set a provisional path whilst the figure is being sketched as a fitted
+     * prefix, which may continue to grow, and a tail joined to its end. The
+     * two are drawn in turn and only joined if the whole path is requested.
+     *
+     * @param path the {@link java.awt.geom.Path2D.Double} prefix
+     * @param tail the {@link java.awt.geom.Path2D.Double} tail or null
+     */
+    public void setSketchPath(Path2D.Double path, Path2D.Double tail) {
+        this.path = path;
+        this.sketchTail = tail;
+        this.sketchPath = null;
+        this.pathDirty = false;
+    }
+
     /**
      * Returns the path describing the figure, rebuilding lazily if geometry changed.
      *
@@ -247,10 +300,34 @@ public Path2D.Double getPath() {
         if (pathDirty) {
             this.path = pathfactory.createPath(this, this.path);
             this.pathDirty = false;
+            this.sketchTail = null;
+            this.sketchPath = null;
+        }
+        if (sketchTail != null) {
+            if (sketchPath == null) {
+                sketchPath = new Path2D.Double(path);
+                sketchPath.append(sketchTail, true);
+            }
+            return sketchPath;
         }
         return this.path;
     }
 
+    /**
+     * Iterate the path describing the figure, without joining a sketched
+     * prefix and tail
+     *
+     * @param at the {@link java.awt.geom.AffineTransform}
+     * @return the {@link java.awt.geom.PathIterator}
+     */
+    protected PathIterator getPathIterator(java.awt.geom.AffineTransform at) {
+        if (pathDirty || sketchTail == null) {
+            return this.getPath().getPathIterator(at);
+        }
+        return new SketchIterator(path.getPathIterator(at), sketchTail.getPathIterator(at),
+            path.getCurrentPoint() != null);
+    }
+
     /**
      * Sets the figure type
      * 
@@ -360,9 +437,13 @@ protected CanvasPoint getTransform(CanvasPoint point) {
      * @return the {@link java.awt.geom.AffineTransform}
      */
     protected java.awt.geom.AffineTransform getTransform() {
-        CanvasPoint centre = this.rotationCentre();
         java.awt.geom.AffineTransform transform = new java.awt.geom.AffineTransform();
-        transform.setToRotation((!this.getType().equals(FigureType.LINE) ? this.getAngle() : 0) + (this.isVertical() ? -Math.PI / 2 : 0), centre.x, centre.y);
+        double theta = (!this.getType().equals(FigureType.LINE) ? this.getAngle() : 0) + (this.isVertical() ? -Math.PI / 2 : 0);
+        if (theta != 0) {
+            // no rotation needs no centre, which may be costly to find
+            CanvasPoint centre = this.rotationCentre();
+            transform.setToRotation(theta, centre.x, centre.y);
+        }
         return transform;
     }
 
@@ -420,9 +501,36 @@ protected Rectangle2D getBounds2D() {
      */
     @Override
     public java.awt.Shape bounds() {
+        if (!pathDirty && sketchTail != null) {
+            // whilst sketching the bounding box serves, the path is not joined
+            Rectangle2D box = sketchTail.getBounds2D();
+            if (path.getCurrentPoint() != null) {
+                box = path.getBounds2D().createUnion(box);
+            }
+            return this.getTransform().createTransformedShape(box);
+        }
         return this.getTransform().createTransformedShape(this.getPath());
     }
 
+    /**
+     * Returns the transformed extent of the stroked path
+     * 
+     * @return a transformed rectangle
+     */
+    @Override
+    public Rectangle2D paintBounds() {
+        Path2D.Double outline = this.getPath();
+        Stroke s = this.getStroke();
+        java.awt.Shape painted = outline;
+        if (s != null && !(s instanceof BasicStroke bs && bs.getLineWidth() == 0f)) {
+            // the fill lies within the stroked outline and the path
+            Path2D.Double stroked = new Path2D.Double(s.createStrokedShape(outline));
+            stroked.append(outline, false);
+            painted = stroked;
+        }
+        return this.getTransform().createTransformedShape(painted).getBounds2D();
+    }
+
     /**
      * Detect if a point lies within the bounds, a convenience method
      * 
@@ -461,16 +569,38 @@ public void moveTo(double xinc, double yinc) {
      */
     @Override
     public Node draw() {
-        java.awt.geom.AffineTransform at;
+        Path fxpath = new Path();
+        updatePath(fxpath, this.getPathIterator(this.getTransform()));
+        this.applyStyle(fxpath);
+        fxpath.setCursor(Cursor.OPEN_HAND);
+        fxpath.setMouseTransparent(true);
+        return fxpath;
+    }
+
+    /**
+     * Update the path previously provided by draw in place
+     * 
+     * @param node the {@link javafx.scene.Node}
+     * @return the {@link javafx.scene.Node}
+     */
+    @Override
+    public Node redraw(Node node) {
+        if (!(node instanceof Path fxpath)) {
+            return this.draw();
+        }
+        updatePath(fxpath, this.getPathIterator(this.getTransform()));
+        this.applyStyle(fxpath);
+        return fxpath;
+    }
 
-        at = this.getTransform();
-        Path fxpath = drawPath(this.getPath(), at);
+    protected void applyStyle(Path fxpath) {
+        BasicStroke basicStroke = (BasicStroke) getStroke();
         fxpath.setStroke(getColor());
-        fxpath.setStrokeWidth(getLineWidth((BasicStroke) getStroke()));
-        fxpath.setStrokeLineJoin(getLineJoin((BasicStroke) getStroke()));
-        fxpath.setStrokeLineCap(getLineCap((BasicStroke) getStroke()));
-        fxpath.getStrokeDashArray().addAll(getDashes(((BasicStroke) getStroke()).getDashArray()));
-        double dashOffset = Float.valueOf(((BasicStroke) getStroke()).getDashPhase()).doubleValue();
+        fxpath.setStrokeWidth(getLineWidth(basicStroke));
+        fxpath.setStrokeLineJoin(getLineJoin(basicStroke));
+        fxpath.setStrokeLineCap(getLineCap(basicStroke));
+        fxpath.getStrokeDashArray().setAll(getDashes(basicStroke.getDashArray()));
+        double dashOffset = Float.valueOf(basicStroke.getDashPhase()).doubleValue();
         fxpath.setStrokeDashOffset(dashOffset);
         if (this.isClosed()) {
             Color alphafill = Color.color(getFillColor().getRed(), 
@@ -478,10 +608,9 @@ public Node draw() {
                 getFillColor().getBlue(),
                 ((double) getTransparency()) / 100);
             fxpath.setFill(alphafill);
+        } else {
+            fxpath.setFill(null);
         }
-        fxpath.setCursor(Cursor.OPEN_HAND);
-        fxpath.setMouseTransparent(true);
-        return fxpath;
     }
 
     private List<Double> getDashes(float[] items) {
@@ -496,52 +625,77 @@ private List<Double> getDashes(float[] items) {
     }
 
     protected Path drawPath(Path2D.Double path, java.awt.geom.AffineTransform at) {
-        double[] coords = {0, 0, 0, 0, 0, 0};
         Path fxpath = new Path();
+        updatePath(fxpath, path, at);
+        return fxpath;
+    }
+
+    /**
+     * Rewrite the elements of an FX path from an AWT path, reusing the
+     * existing elements where the segment type is unchanged
+     * 
+     * @param fxpath the {@link javafx.scene.shape.Path}
+     * @param path the {@link java.awt.geom.Path2D.Double}
+     * @param at the {@link java.awt.geom.AffineTransform}
+     */
+    protected void updatePath(Path fxpath, Path2D.Double path, java.awt.geom.AffineTransform at) {
+        updatePath(fxpath, path.getPathIterator(at));
+    }
+
+    private void updatePath(Path fxpath, PathIterator iterator) {
+        double[] coords = {0, 0, 0, 0, 0, 0};
+        List<PathElement> elements = fxpath.getElements();
+        int k = 0;
 
-        PathIterator iterator = path.getPathIterator(at);
         while (!iterator.isDone()) {
-            switch (iterator.currentSegment(coords)) {
+            PathElement current = k < elements.size() ? elements.get(k) : null;
+            PathElement element = switch (iterator.currentSegment(coords)) {
             case PathIterator.SEG_MOVETO -> {
-                MoveTo moveTo = new MoveTo();
+                MoveTo moveTo = current instanceof MoveTo m ? m : new MoveTo();
                 moveTo.setX(coords[0]);
                 moveTo.setY(coords[1]);
-                fxpath.getElements().add(moveTo);
+                yield moveTo;
                 }
             case PathIterator.SEG_LINETO -> {
-                LineTo lineTo = new LineTo();
+                LineTo lineTo = current instanceof LineTo l ? l : new LineTo();
                 lineTo.setX(coords[0]);
                 lineTo.setY(coords[1]);
-                fxpath.getElements().add(lineTo);
+                yield lineTo;
                 }
             case PathIterator.SEG_QUADTO -> {
-                QuadCurveTo quadCurveTo = new QuadCurveTo();
+                QuadCurveTo quadCurveTo = current instanceof QuadCurveTo q ? q : new QuadCurveTo();
                 quadCurveTo.setX(coords[2]);
                 quadCurveTo.setY(coords[3]);
                 quadCurveTo.setControlX(coords[0]);
                 quadCurveTo.setControlY(coords[1]);
-                fxpath.getElements().add(quadCurveTo);
+                yield quadCurveTo;
                 }
             case PathIterator.SEG_CUBICTO -> {
-                CubicCurveTo cubicTo = new CubicCurveTo();
+                CubicCurveTo cubicTo = current instanceof CubicCurveTo c ? c : new CubicCurveTo();
                 cubicTo.setX(coords[4]);
                 cubicTo.setY(coords[5]);
                 cubicTo.setControlX1(coords[0]);
                 cubicTo.setControlY1(coords[1]);
                 cubicTo.setControlX2(coords[2]);
                 cubicTo.setControlY2(coords[3]);
-                fxpath.getElements().add(cubicTo);
-                }
-            case PathIterator.SEG_CLOSE -> {
-                ClosePath closePath = new ClosePath();
-                fxpath.getElements().add(closePath);
+                yield cubicTo;
                 }
-            default -> {
+            case PathIterator.SEG_CLOSE -> current instanceof ClosePath c ? c : new ClosePath();
+            default -> null;
+            };
+            if (element != null) {
+                if (current == null) {
+                    elements.add(element);
+                } else if (element != current) {
+                    elements.set(k, element);
                 }
+                k++;
             }
             iterator.next();
         }
-        return fxpath;
+        if (k < elements.size()) {
+            elements.subList(k, elements.size()).clear();
+        }
     }
 
     /**
@@ -1012,7 +1166,7 @@ public static Color awtToFx(java.awt.Color color) {
      * @return {@link java.awt.Color}
      */
     public static java.awt.Color fxToAwt(Color color) {
-        return new java.awt.Color((float) color.getRed(), (float) color.getGreen(), (float) color.getBlue(), (float) color.getOpacity());
+        return fxToAwt(color, (float) color.getOpacity());
     }
 
     /**
@@ -1025,7 +1179,17 @@ public static java.awt.Color fxToAwt(Color color) {
      * @return {@link java.awt.Color}
      */
     public static java.awt.Color fxToAwt(Color color, float opacity) {
-        return new java.awt.Color((float) color.getRed(), (float) color.getGreen(), (float) color.getBlue(), opacity);
+        if (awtColors.size() > AWT_COLORS_LIMIT) {
+            awtColors.clear();
+        }
+        return awtColors.computeIfAbsent(new AwtColorKey(color, opacity), key ->
+            new java.awt.Color((float) color.getRed(), (float) color.getGreen(), (float) color.getBlue(), opacity));
+    }
+
+    /**
+     * Both colour classes are immutable, so conversions are shared
+     */
+    private record AwtColorKey(Color color, float opacity) {
     }
 
     private void readObject(ObjectInputStream in)
@@ -1177,4 +1341,50 @@ private static double[][] getPathData(Path2D.Double path) {
         return pathData.toArray(double[][]::new);
     }
 
+    /**
+     * Iterates a sketched prefix then its tail, omitting the move to the
+     * joining point as {@link java.awt.geom.Path2D#append} would
+     */
+    private static final class SketchIterator implements PathIterator {
+
+        private final PathIterator prefix, tail;
+
+        SketchIterator(PathIterator prefix, PathIterator tail, boolean connect) {
+            this.prefix = prefix;
+            this.tail = tail;
+            if (connect && !tail.isDone() && tail.currentSegment(new double[6]) == SEG_MOVETO) {
+                tail.next();
+            }
+        }
+
+        @Override
+        public int getWindingRule() {
+            return prefix.getWindingRule();
+        }
+
+        @Override
+        public boolean isDone() {
+            return prefix.isDone() && tail.isDone();
+        }
+
+        @Override
+        public void next() {
+            if (!prefix.isDone()) {
+                prefix.next();
+            } else {
+                tail.next();
+            }
+        }
+
+        @Override
+        public int currentSegment(float[] coords) {
+            return prefix.isDone() ? tail.currentSegment(coords) : prefix.currentSegment(coords);
+        }
+
+        @Override
+        public int currentSegment(double[] coords) {
+            return prefix.isDone() ? tail.currentSegment(coords) : prefix.currentSegment(coords);
+        }
+    }
+
 }
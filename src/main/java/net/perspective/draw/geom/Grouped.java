@@ -413,6 +413,51 @@ public Node draw() {
         return group;
     }
 
+    /**
+     * Update the group previously provided by draw in place, the members
+     * are updated in turn
+     *
+     * @param node the {@link javafx.scene.Node}
+     * @return the {@link javafx.scene.Node}
+     */
+    @Override
+    public Node redraw(Node node) {
+        if (!(node instanceof Group group)
+                || group.getChildren().size() != drawItems.size()
+                || group.getTransforms().size() != 4) {
+            return this.draw();
+        }
+        List<Node> children = group.getChildren();
+        for (int i = 0; i < drawItems.size(); i++) {
+            Node child = children.get(i);
+            Node update = drawItems.get(i).redraw(child);
+            if (update != child) {
+                children.set(i, update);
+            }
+        }
+        CanvasPoint c = this.rotationCentre();
+        if (group.getTransforms().get(0) instanceof Rotate rotate
+                && group.getTransforms().get(1) instanceof Translate t1
+                && group.getTransforms().get(2) instanceof Scale s
+                && group.getTransforms().get(3) instanceof Translate t2) {
+            rotate.setAngle(angle * 180 / Math.PI);
+            rotate.setPivotX(c.x);
+            rotate.setPivotY(c.y);
+            t1.setX(start.x);
+            t1.setY(start.y);
+            s.setX(scale);
+            s.setY(scale);
+            t2.setX(-start.x);
+            t2.setY(-start.y);
+        } else {
+            group.getTransforms().setAll(new Rotate(angle * 180 / Math.PI, c.x, c.y),
+                new Translate(start.x, start.y),
+                new Scale(scale, scale),
+                new Translate(-start.x, -start.y));
+        }
+        return group;
+    }
+
     /**
      * Render the item anchors to indicate selection
      *
@@ -442,6 +487,31 @@ protected javafx.scene.shape.Shape anchor(DrawingArea drawarea, double x, double
         return anchor;
     }
 
+    /**
+     * Returns the transformed extent of the items as painted
+     * 
+     * @return a transformed rectangle
+     */
+    @Override
+    public Rectangle2D paintBounds() {
+        Rectangle2D extent = null;
+        for (DrawItem shape : drawItems) {
+            if (extent == null) {
+                extent = shape.paintBounds();
+            } else {
+                extent.add(shape.paintBounds());
+            }
+        }
+        if (extent == null) {
+            return this.bounds().getBounds2D();
+        }
+        AffineTransform transform = this.getTransform();
+        transform.translate(start.x, start.y);
+        transform.scale(scale, scale);
+        transform.translate(-start.x, -start.y);
+        return transform.createTransformedShape(extent).getBounds2D();
+    }
+
     /**
      * Render the item to the g2d canvas
      *
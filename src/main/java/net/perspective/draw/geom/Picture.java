@@ -36,15 +36,18 @@
 import javax.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import javafx.embed.swing.SwingFXUtils;
+import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
+import javafx.stage.Screen;
 import net.perspective.draw.CanvasView;
 import net.perspective.draw.DrawingArea;
+import net.perspective.draw.ImageItem;
 import net.perspective.draw.enums.ContainsType;
 import net.perspective.draw.util.CanvasPoint;
 
@@ -59,6 +62,7 @@ public class Picture implements DrawItem, Serializable {
 
     protected transient DrawingArea drawarea;
     protected transient CanvasView view;
+    protected transient List<ImageItem> images;   // image table of a snapshot
     protected int index;
     protected CanvasPoint start, end;   // start is _untransformed_ coord of TL, end is offset
     protected double scale;
@@ -138,6 +142,25 @@ public int getImageIndex() {
         return index;
     }
 
+    /**
+     * Resolve the image from the given table rather than the view, as for
+     * a copy held by a {@link net.perspective.draw.DocumentSnapshot}
+     * 
+     * @param images the list of {@link net.perspective.draw.ImageItem}
+     */
+    public void setImageTable(List<ImageItem> images) {
+        this.images = images;
+    }
+
+    /**
+     * Return the {@code ImageItem} drawn by the picture
+     * 
+     * @return the {@link net.perspective.draw.ImageItem}
+     */
+    protected ImageItem getImageItem() {
+        return images != null ? images.get(index) : view.getImageItem(index);
+    }
+
     /**
      * Set the untransformed TL coordinate of the picture
      * 
@@ -376,20 +399,61 @@ public void moveTo(double xinc, double yinc) {
     @Override
     public Node draw() {
         ImageView iv = new ImageView();
-        Image image = view.getImageItem(index).getImage();
-        iv.setImage(image);
-        iv.setFitWidth(image.getWidth() * Math.abs(scale));
         iv.setPreserveRatio(true);
         iv.setSmooth(true);
         iv.setCache(true);
-        iv.setRotate(180 * this.getAngle() / Math.PI);
-        iv.setX(start.x + (scale >= 0 ? 0 : end.x * scale ));
-        iv.setY(start.y + (scale >= 0 ? 0 : end.y * scale ));
+        this.placeImage(iv);
         iv.setCursor(javafx.scene.Cursor.OPEN_HAND);
         iv.setMouseTransparent(true);
         return iv;
     }
 
+    /**
+     * Update the ImageView previously provided by draw in place
+     * 
+     * @param node the {@link javafx.scene.Node}
+     * @return the {@link javafx.scene.Node}
+     */
+    @Override
+    public Node redraw(Node node) {
+        if (!(node instanceof ImageView iv)) {
+            return this.draw();
+        }
+        this.placeImage(iv);
+        return iv;
+    }
+
+    private void placeImage(ImageView iv) {
+        ImageItem item = view.getImageItem(index);
+        // decode no more pixels than are shown
+        double pixels = end.x * Math.abs(scale) * Screen.getPrimary().getOutputScaleX();
+        int level = item.getLevel(pixels);
+        if (item.isDecoded(level)) {
+            iv.setImage(item.getImage(level));
+        } else {
+            // show a placeholder, or the level shown, until the level is decoded in the background
+            Image shown = iv.getImage() != null ? iv.getImage() : this.placeholder();
+            iv.setImage(shown);
+            view.decodeImage(index, level).thenAccept(image -> Platform.runLater(() -> {
+                if (iv.getImage() == shown) {
+                    iv.setImage(image);
+                }
+            }));
+        }
+        iv.setFitWidth(end.x * Math.abs(scale));
+        iv.setFitHeight(end.y * Math.abs(scale));
+        iv.setRotate(180 * this.getAngle() / Math.PI);
+        iv.setX(start.x + (scale >= 0 ? 0 : end.x * scale ));
+        iv.setY(start.y + (scale >= 0 ? 0 : end.y * scale ));
+    }
+
+    private Image placeholder() {
+        WritableImage placeholder = new WritableImage(1, 1);
+        placeholder.getPixelWriter().setColor(0, 0, drawarea != null
+            ? Color.web(drawarea.getThemeFillColor()) : Color.LIGHTGRAY);
+        return placeholder;
+    }
+
     /**
      * Render the picture anchors to indicate selection
      * 
@@ -435,8 +499,7 @@ public void draw(Graphics2D g2) {
 
         try {
             // Retrieve image
-            Image image = view.getImageItem(index).getImage();
-            BufferedImage img = SwingFXUtils.fromFXImage(image, null);
+            BufferedImage img = this.getImageItem().getBufferedImage();
             if (img == null) {
                 throw new NullPointerException();
             }
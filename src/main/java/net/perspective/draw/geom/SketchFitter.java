@@ -0,0 +1,129 @@
+/*
+ * SketchFitter.java
+ *
+ * Created on Oct 17, 2026 10:04:12 AM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.geom;
+
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.List;
+import net.perspective.draw.util.CanvasPoint;
+import org.jhotdraw.geom.Bezier;
+
+/**
+ * Incrementally fits a bezier path to a sketch while it is being drawn
+ *
+ * <p>The fitted prefix of the path is kept in one growing path and only
+ * the tail of points since the last stable corner, or forced break point,
+ * is refitted as each point is added. The figure is given the prefix and
+ * tail as a provisional path; it is refitted in full from its points on
+ * completion.
+ *
+ * @author ctipper
+ */
+
+public class SketchFitter {
+
+    private Path2D.Double prefix;
+    private int anchor;
+
+    private static final double FIT_ERROR = 0.75;                  // as FigurePathFactory
+    private static final double CORNER_ANGLE = 77 / 180d * Math.PI;
+    private static final int MAX_TAIL = 96;                         // points refitted per event
+
+    /**
+     * Creates a new instance of <code>SketchFitter</code>
+     */
+    public SketchFitter() {
+        this.prefix = new Path2D.Double();
+        this.anchor = 0;
+    }
+
+    /**
+     * Discard the fitted prefix, ready for a new sketch
+     */
+    public void reset() {
+        // the figure keeps the former prefix as its path
+        prefix = new Path2D.Double();
+        anchor = 0;
+    }
+
+    /**
+     * Can the figure be fitted incrementally
+     *
+     * @param figure the {@link net.perspective.draw.geom.Figure}
+     * @return the figure is a sketch or polygon
+     */
+    public static boolean accepts(Figure figure) {
+        return figure.getType().equals(FigureType.SKETCH) || figure.getType().equals(FigureType.POLYGON);
+    }
+
+    /**
+     * Fit the points of the figure, refitting only the tail since the last
+     * call where possible, and set the provisional path of the figure
+     *
+     * @param figure the {@link net.perspective.draw.geom.Figure}
+     */
+    public void fit(Figure figure) {
+        List<CanvasPoint> points = figure.getPoints();
+        int n = points.size();
+        if (anchor >= n) {
+            // points were replaced, start over
+            this.reset();
+        }
+        List<CanvasPoint> tail = points.subList(anchor, n);
+        ArrayList<Integer> corners = Bezier.findCorners(tail, CORNER_ANGLE, FIT_ERROR * FIT_ERROR);
+        /**
+         * The last corner may yet be displaced by later points, the one
+         * before it is stable. Overlong smooth runs are broken to bound
+         * the cost of each event.
+         */
+        int stable = 0;
+        if (corners.size() > 1) {
+            stable = corners.get(corners.size() - 2);
+        } else if (tail.size() > MAX_TAIL) {
+            stable = tail.size() - MAX_TAIL / 2;
+        }
+        if (stable > 0) {
+            this.append(prefix, tail.subList(0, stable + 1));
+            anchor += stable;
+            tail = points.subList(anchor, n);
+        }
+        Path2D.Double path = new Path2D.Double();
+        this.append(path, tail);
+        if (figure.getType().equals(FigureType.POLYGON) && path.getCurrentPoint() != null) {
+            // closes to the start of the prefix once joined
+            path.closePath();
+        }
+        figure.setSketchPath(prefix, path);
+    }
+
+    private void append(Path2D.Double path, List<CanvasPoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        Path2D.Double fitted = Bezier.fitBezierPath(points, FIT_ERROR).toGeneralPath();
+        // joining point is shared, connect omits the redundant move
+        path.append(fitted.getPathIterator(null), path.getCurrentPoint() != null);
+    }
+
+}
@@ -36,7 +36,6 @@
 import com.gluonhq.maps.MapPoint;
 import com.gluonhq.maps.MapView;
 import javafx.application.Platform;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
 import javafx.geometry.Pos;
@@ -439,8 +438,10 @@ public void draw(Graphics2D g2) {
 
         try {
             // Retrieve image
-            javafx.scene.image.Image image = view.getImageItem(index).getImage();
-            BufferedImage img = SwingFXUtils.fromFXImage(image, null);
+            BufferedImage img = this.getImageItem().getBufferedImage();
+            if (img == null) {
+                throw new NullPointerException();
+            }
             g2.drawImage(img, 0, 0, null);
         } catch (IndexOutOfBoundsException e) {
             logger.error("Picture: Index {0} Out of Bounds.", index);
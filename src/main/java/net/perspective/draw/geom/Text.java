@@ -41,12 +41,10 @@
 import java.text.AttributedString;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import javafx.scene.text.TextFlow;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
@@ -75,6 +73,7 @@ public class Text implements DrawItem, Serializable {
     private final float WRAPPING_WIDTH = Float.MAX_VALUE;
 
     private static final HashMap<TextAttribute, Object> map = new HashMap<>();
+    private static final String LAYOUT_STATE = "text.layout.state";
 
     static {
         map.put(TextAttribute.KERNING, TextAttribute.KERNING_ON);
@@ -255,9 +254,7 @@ public void updateProperties(DrawingArea drawarea) {
         this.setTransparency(drawarea.getTransparency());
         this.setFont(drawarea.getFontFamily());
         // Verify that this is Rich Text
-        Pattern parpattern = Pattern.compile("(<p>)+(.*)(</p>)+", Pattern.DOTALL);
-        Matcher matcher = parpattern.matcher(text);
-        if (matcher.find()) {
+        if (TextFormatter.isRichText(text)) {
             this.setStyle(java.awt.Font.PLAIN);
         } else {
             this.setStyle(drawarea.getFontStyle());
@@ -268,11 +265,16 @@ public void updateProperties(DrawingArea drawarea) {
 
     /**
      * Set the width and height of the item in points
+     * 
+     * <p>The layout is only built when no measurement is cached
      */
     public void setDimensions() {
-        Group layout = this.getLayout();
-        end = new CanvasPoint((double) layout.getLayoutBounds().getWidth(),
-            (double) layout.getLayoutBounds().getHeight());
+        TextLayoutCache.Entry entry = TextLayoutCache.get(this);
+        if (!entry.isMeasured()) {
+            this.getLayout();
+        }
+        fxParaHeights = entry.getFxParaHeights();
+        end = new CanvasPoint(entry.getWidth(), entry.getHeight());
     }
 
     /**
@@ -283,22 +285,25 @@ public void setDimensions() {
     @Transient
     public Group getLayout() {
         Group tf;
+        TextLayoutCache.Entry entry = TextLayoutCache.get(this);
         // Verify that this is Rich Text
-        Pattern parpattern = Pattern.compile("(<p>)+(.*)(</p>)+", Pattern.DOTALL);
-        Matcher matcher = parpattern.matcher(text);
-        if (matcher.find()) {
+        if (TextFormatter.isRichText(text)) {
             TextFormatter formatter = new TextFormatter();
             tf = formatter.readFxFormattedParagraphs(this);
         } else {
             TextFormatter formatter = new TextFormatter();
             tf = formatter.readFxParagraphs(this);
         }
-        fxParaHeights = new ArrayList<>();
-        for (var child : tf.getChildren()) {
-            if (child instanceof TextFlow flow) {
-                fxParaHeights.add(flow.getHeight());
+        if (!entry.isMeasured()) {
+            List<Double> heights = new ArrayList<>();
+            for (var child : tf.getChildren()) {
+                if (child instanceof TextFlow flow) {
+                    heights.add(flow.getHeight());
+                }
             }
+            entry.setMeasurement(heights, tf.getLayoutBounds().getWidth(), tf.getLayoutBounds().getHeight());
         }
+        fxParaHeights = entry.getFxParaHeights();
         return tf;
     }
 
@@ -444,12 +449,45 @@ public void moveTo(double xinc, double yinc) {
     @Override
     public Node draw() {
         Group layout = getLayout();
+        layout.getProperties().put(LAYOUT_STATE, new LayoutState(TextLayoutCache.get(this), color));
+        this.placeLayout(layout);
+        layout.setMouseTransparent(true);
+        return layout;
+    }
+
+    /**
+     * Reposition the layout previously provided by draw when the text
+     * content, font and colour are unchanged
+     * 
+     * @param node the {@link javafx.scene.Node}
+     * @return the {@link javafx.scene.Node}
+     */
+    @Override
+    public Node redraw(Node node) {
+        if (node instanceof Group layout
+                && new LayoutState(TextLayoutCache.get(this), color).equals(layout.getProperties().get(LAYOUT_STATE))) {
+            this.placeLayout(layout);
+            return layout;
+        }
+        return this.draw();
+    }
+
+    private void placeLayout(Group layout) {
         CanvasPoint axis = this.rotationCentre();
+        double theta = (getAngle() + (isVertical() ? -Math.PI / 2 : 0)) * 180 / Math.PI;
         layout.setLayoutX(axis.x);
         layout.setLayoutY(axis.y);
-        layout.getTransforms().add(new Rotate((getAngle() + (isVertical() ? -Math.PI / 2 : 0)) * 180 / Math.PI, 0, 0));
-        layout.setMouseTransparent(true);
-        return layout;
+        if (layout.getTransforms().size() == 1 && layout.getTransforms().getFirst() instanceof Rotate rotate) {
+            rotate.setAngle(theta);
+        } else {
+            layout.getTransforms().setAll(new Rotate(theta, 0, 0));
+        }
+    }
+
+    /**
+     * Identifies the cached content and colour a layout was built from
+     */
+    private record LayoutState(TextLayoutCache.Entry entry, Color color) {
     }
 
     /**
@@ -542,19 +580,29 @@ public void draw(Graphics2D g2) {
     /**
      * Return a layout used to calculate item properties
      * 
+     * <p>Layouts are cached per render context and shared between
+     * items with the same content, the list returned is unmodifiable
+     * 
      * @param g2 g2 graphics context {@link java.awt.Graphics2D}
      * @return a TextLayout
      */
     public List<TextLayoutInfo> getLayout(Graphics2D g2) {
-        List<TextLayoutInfo> layouts = new CopyOnWriteArrayList<>();
-        int charPosition = 0;
         FontRenderContext context = g2.getFontRenderContext();
+        TextLayoutCache.Entry entry = TextLayoutCache.get(this);
+        if (entry.isMeasured()) {
+            fxParaHeights = entry.getFxParaHeights();
+            return entry.getAwtLayouts(context, () -> this.buildLayouts(context));
+        }
+        // no FX measurement for this content, lay out without caching
+        return Collections.unmodifiableList(this.buildLayouts(context));
+    }
 
-        // Verify that this is Rich Text
-        Pattern parpattern = Pattern.compile("<p>(.*?)</p>", Pattern.DOTALL);
-        Matcher matcher = parpattern.matcher(text);
+    private List<TextLayoutInfo> buildLayouts(FontRenderContext context) {
+        List<TextLayoutInfo> layouts = new ArrayList<>();
+        int charPosition = 0;
 
-        if (matcher.find()) {
+        // Verify that this is Rich Text
+        if (TextFormatter.isRichText(text)) {
             TextFormatter formatter = new TextFormatter();
             List<AttributedString> paragraphs = formatter.readFormattedParagraphs(this);
             for (int i = 0; i < paragraphs.size(); i++) {
@@ -633,7 +681,7 @@ private Font buildFont() {
         return f.deriveFont(map);
     }
 
-    public class TextLayoutInfo {
+    public static class TextLayoutInfo {
 
         public TextLayout layout;
         public float width;
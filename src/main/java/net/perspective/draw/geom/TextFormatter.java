@@ -45,16 +45,17 @@
 public class TextFormatter {
 
     private String text;
-    private Document currentdom;
-    private int offset;
+    private List<Paragraph> paragraphs;
 
     public static final int FONT_BOLD = 1;
     public static final int FONT_ITALIC = 2;
     public static final int FONT_UNDERLINED = 4;
 
+    private static final Pattern PARAGRAPH_PATTERN = Pattern.compile("(<p>)+(.*)(</p>)+", Pattern.DOTALL);
+
     /** Creates a new instance of <code>TextFormatter</code> */
     public TextFormatter() {
-        this.currentdom = null;
+        this.paragraphs = List.of();
     }
 
     /**
@@ -67,9 +68,9 @@ public Group readFxFormattedParagraphs(Text item) {
         this.readTextItem(item);
         Group group = new Group();
         double yOffset = 0;
-        for (Element child : currentdom.children()) {
+        for (Paragraph paragraph : paragraphs) {
             javafx.scene.text.TextFlow tf = new javafx.scene.text.TextFlow();
-            List<javafx.scene.text.Text> textlist = setFxFormattingAttributes(child, item);
+            List<javafx.scene.text.Text> textlist = setFxFormattingAttributes(paragraph, item);
             if (textlist.isEmpty()) {
                 javafx.scene.text.Text blank = new javafx.scene.text.Text(" ");
                 setFxFontAttributes(blank, item.getFont(), item.getSize(), item.getStyle(), item.getColor());
@@ -96,8 +97,8 @@ public Group readFxParagraphs(Text item) {
         this.readTextItem(item);
         Group group = new Group();
         double yOffset = 0;
-        for (Element child : currentdom.children()) {
-            String paraText = child.wholeText();
+        for (Paragraph paragraph : paragraphs) {
+            String paraText = paragraph.text();
             javafx.scene.text.Text tt = new javafx.scene.text.Text(paraText.isEmpty() ? " " : paraText);
             setFxFontAttributes(tt, item.getFont(), item.getSize(), item.getStyle(), item.getColor());
             javafx.scene.text.TextFlow tf = new javafx.scene.text.TextFlow(tt);
@@ -126,16 +127,15 @@ public List<AttributedString> readFormattedParagraphs(Text item) {
             result.add(new AttributedString(" "));
             return result;
         }
-        for (Element child : currentdom.children()) {
-            String paraText = child.wholeText();
+        for (Paragraph paragraph : paragraphs) {
+            String paraText = paragraph.text();
             if (paraText.isEmpty()) {
                 result.add(null); // null signals an empty paragraph to the caller
                 continue;
             }
             AttributedString as = new AttributedString(paraText);
             this.setFontAttributes(item, as);
-            offset = 0;
-            as = this.setFormattingAttributes(child, as);
+            this.setFormattingAttributes(paragraph, as);
             result.add(as);
         }
         return result;
@@ -143,18 +143,46 @@ public List<AttributedString> readFormattedParagraphs(Text item) {
 
     /**
      * Load Text content into formatter
+     * 
+     * <p>The parsed content is shared through the text layout cache
      *
      * @param item A {@link net.perspective.draw.geom.Text} item
      */
     public void readTextItem(Text item) {
-        String content = normalizeText(item.getText());
-        currentdom = Jsoup.parse(content, "", Parser.xmlParser());
-        text = getFlattenedText(currentdom);
+        Parsed parsed = TextLayoutCache.get(item).parsed();
+        text = parsed.text();
+        paragraphs = parsed.paragraphs();
+    }
+
+    /**
+     * Is the content marked up as rich text
+     *
+     * @param content the item text
+     * @return content has paragraph markup
+     */
+    public static boolean isRichText(String content) {
+        return PARAGRAPH_PATTERN.matcher(content).find();
+    }
+
+    /**
+     * Parse item content into paragraphs of styled runs
+     *
+     * @param content the item text
+     * @return the parsed content
+     */
+    static Parsed parse(String content) {
+        Document dom = Jsoup.parse(normalizeText(content), "", Parser.xmlParser());
+        List<Paragraph> result = new ArrayList<>();
+        for (Element child : dom.children()) {
+            List<Run> runs = new ArrayList<>();
+            collectRuns(child, 0, 0, runs);
+            result.add(new Paragraph(child.wholeText(), List.copyOf(runs)));
+        }
+        return new Parsed(getFlattenedText(dom), List.copyOf(result));
     }
 
-    private String normalizeText(String content) {
-        Pattern parpattern = Pattern.compile("(<p>)+(.*)(</p>)+", Pattern.DOTALL);
-        Matcher matcher = parpattern.matcher(content);
+    private static String normalizeText(String content) {
+        Matcher matcher = PARAGRAPH_PATTERN.matcher(content);
         if (!matcher.find()) {
             String[] lines = content.split("\n", -1);
             StringBuilder sb = new StringBuilder();
@@ -170,10 +198,32 @@ private String normalizeText(String content) {
         return content;
     }
 
-    private String getFlattenedText(Document doc) {
+    private static String getFlattenedText(Document doc) {
         return doc.wholeText();
     }
 
+    /**
+     * Flatten the element tree into runs of text, FX styles toggle with
+     * nesting whereas AWT attributes accumulate over the element range
+     */
+    private static void collectRuns(Element element, int fxStyle, int awtStyle, List<Run> runs) {
+        for (Node node : element.childNodes()) {
+            switch (node) {
+                case TextNode textNode -> runs.add(new Run(textNode.getWholeText(), fxStyle, awtStyle));
+                case Element el -> {
+                    int mask = switch (el.tagName().toLowerCase()) {
+                        case "b" -> FONT_BOLD;
+                        case "i" -> FONT_ITALIC;
+                        case "u" -> FONT_UNDERLINED;
+                        default -> 0;
+                    };
+                    collectRuns(el, fxStyle ^ mask, awtStyle | mask, runs);
+                }
+                default -> {}
+            }
+        }
+    }
+
     private javafx.scene.text.Text setFxFontAttributes(javafx.scene.text.Text tt, String fontfamily, double size, int fontstyle, javafx.scene.paint.Color color) {
         javafx.scene.text.Font f;
         // Serif is the default
@@ -237,71 +287,52 @@ private void setFontAttributes(Text item, AttributedString as) {
         as.addAttribute(TextAttribute.KERNING, TextAttribute.KERNING_ON);
     }
 
-    private List<javafx.scene.text.Text> setFxFormattingAttributes(Element element, Text item) {
-        return setFxFormattingAttributesRecursive(element, item, 0);
-    }
-
-    private List<javafx.scene.text.Text> setFxFormattingAttributesRecursive(Element element, Text item, int fontstyle) {
+    private List<javafx.scene.text.Text> setFxFormattingAttributes(Paragraph paragraph, Text item) {
         List<javafx.scene.text.Text> textlist = new ArrayList<>();
-        for (Node node : element.childNodes()) {
-            switch (node) {
-                case TextNode textNode -> {
-                    String nodeText = textNode.getWholeText();
-                    javafx.scene.text.Text tt = new javafx.scene.text.Text(nodeText);
-                    setFxFontAttributes(tt, item.getFont(), item.getSize(), fontstyle, item.getColor());
-                    textlist.add(tt);
-                }
-                case Element el -> {
-                    String tag = el.tagName().toLowerCase();
-                    int newStyle = fontstyle;
-                    switch (tag) {
-                        case "b" -> newStyle ^= FONT_BOLD;
-                        case "i" -> newStyle ^= FONT_ITALIC;
-                        case "u" -> newStyle ^= FONT_UNDERLINED;
-                        default -> {}
-                    }
-                    textlist.addAll(setFxFormattingAttributesRecursive(el, item, newStyle));
-                }
-                default -> {}
-            }
+        for (Run run : paragraph.runs()) {
+            javafx.scene.text.Text tt = new javafx.scene.text.Text(run.text());
+            setFxFontAttributes(tt, item.getFont(), item.getSize(), run.fxStyle(), item.getColor());
+            textlist.add(tt);
         }
         return textlist;
     }
 
-    private AttributedString setFormattingAttributes(Element element, AttributedString as) {
-        for (Node node : element.childNodes()) {
-            switch (node) {
-                case TextNode textNode -> offset += textNode.getWholeText().length();
-                case Element el -> {
-                    int localLen = getLocalOffset(el);
-                    if (localLen != 0) {
-                        String tag = el.tagName().toLowerCase();
-                        if (null != tag) switch (tag) {
-                            case "b" -> as.addAttribute(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD, offset, offset + localLen);
-                            case "i" -> as.addAttribute(TextAttribute.POSTURE, TextAttribute.POSTURE_OBLIQUE, offset, offset + localLen);
-                            case "u" -> as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON, offset, offset + localLen);
-                            default -> {}
-                        }
-                        as = setFormattingAttributes(el, as);
-                    }
+    private void setFormattingAttributes(Paragraph paragraph, AttributedString as) {
+        int offset = 0;
+        for (Run run : paragraph.runs()) {
+            int length = run.text().length();
+            if (length != 0) {
+                int style = run.awtStyle();
+                if ((style & FONT_BOLD) == FONT_BOLD) {
+                    as.addAttribute(TextAttribute.WEIGHT, TextAttribute.WEIGHT_BOLD, offset, offset + length);
+                }
+                if ((style & FONT_ITALIC) == FONT_ITALIC) {
+                    as.addAttribute(TextAttribute.POSTURE, TextAttribute.POSTURE_OBLIQUE, offset, offset + length);
+                }
+                if ((style & FONT_UNDERLINED) == FONT_UNDERLINED) {
+                    as.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON, offset, offset + length);
                 }
-                default -> {}
             }
+            offset += length;
         }
-        return as;
     }
 
-    private int getLocalOffset(Element element) {
-        // Calculate length of Element text
-        int localoffset = 0;
-        for (Node node : element.childNodes()) {
-            switch (node) {
-                case TextNode textNode -> localoffset += textNode.getWholeText().length();
-                case Element el -> localoffset += getLocalOffset(el);
-                default -> {}
-            }
-        }
-        return localoffset;
+    /**
+     * A span of text with uniform formatting
+     */
+    record Run(String text, int fxStyle, int awtStyle) {
+    }
+
+    /**
+     * A paragraph of runs
+     */
+    record Paragraph(String text, List<Run> runs) {
+    }
+
+    /**
+     * The parsed content of a Text item
+     */
+    record Parsed(String text, List<Paragraph> paragraphs) {
     }
 
 }
@@ -0,0 +1,143 @@
+/*
+ * TextLayoutCache.java
+ *
+ * Created on Oct 17, 2026 11:20:05 AM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.geom;
+
+import java.awt.font.FontRenderContext;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A bounded LRU cache of text layout data shared by {@link Text} items
+ *
+ * <p>Entries are keyed on the content and font properties of an item and
+ * hold the parsed paragraphs, the measured FX paragraph heights and
+ * bounds, and the AWT layouts for each render context. Colour is not part
+ * of the key as none of the cached data depends on it.
+ *
+ * @author ctipper
+ */
+
+final class TextLayoutCache {
+
+    static final int CAPACITY = 1024;
+
+    private static final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private TextLayoutCache() {
+    }
+
+    /**
+     * Return the cache entry for the current state of an item
+     *
+     * @param item the {@link net.perspective.draw.geom.Text}
+     * @return the cache entry
+     */
+    static Entry get(Text item) {
+        Key key = new Key(item.getText(), item.getFont(), item.getSize(), item.getStyle());
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            // parse outside the lock, a concurrent duplicate is harmless
+            Entry parsed = new Entry(TextFormatter.parse(key.text()));
+            synchronized (entries) {
+                entry = entries.putIfAbsent(key, parsed);
+            }
+            if (entry == null) {
+                entry = parsed;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Empty the cache
+     */
+    static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    record Key(String text, String font, int size, int style) {
+    }
+
+    static final class Entry {
+
+        private final TextFormatter.Parsed parsed;
+        private volatile boolean measured;
+        private List<Double> fxParaHeights;
+        private double width, height;
+        private final Map<FontRenderContext, List<Text.TextLayoutInfo>> awtLayouts;
+
+        Entry(TextFormatter.Parsed parsed) {
+            this.parsed = parsed;
+            this.measured = false;
+            this.awtLayouts = new ConcurrentHashMap<>();
+        }
+
+        TextFormatter.Parsed parsed() {
+            return parsed;
+        }
+
+        boolean isMeasured() {
+            return measured;
+        }
+
+        synchronized void setMeasurement(List<Double> fxParaHeights, double width, double height) {
+            this.fxParaHeights = List.copyOf(fxParaHeights);
+            this.width = width;
+            this.height = height;
+            this.measured = true;
+            // AWT line heights follow the FX heights
+            awtLayouts.clear();
+        }
+
+        synchronized List<Double> getFxParaHeights() {
+            return fxParaHeights;
+        }
+
+        synchronized double getWidth() {
+            return width;
+        }
+
+        synchronized double getHeight() {
+            return height;
+        }
+
+        List<Text.TextLayoutInfo> getAwtLayouts(FontRenderContext context, Supplier<List<Text.TextLayoutInfo>> builder) {
+            return awtLayouts.computeIfAbsent(context, k -> List.copyOf(builder.get()));
+        }
+    }
+
+}
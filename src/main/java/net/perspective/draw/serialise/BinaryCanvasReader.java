@@ -0,0 +1,316 @@
+/**
+ * BinaryCanvasReader.java
+ *
+ * Created on Oct 17, 2026 4:31:52 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.serialise;
+
+import java.awt.BasicStroke;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import javafx.scene.paint.Color;
+import net.perspective.draw.geom.ArrowLine;
+import net.perspective.draw.geom.ArrowType;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Edge;
+import net.perspective.draw.geom.Figure;
+import net.perspective.draw.geom.FigureType;
+import net.perspective.draw.geom.Grouped;
+import net.perspective.draw.geom.Picture;
+import net.perspective.draw.geom.StreetMap;
+import net.perspective.draw.geom.Text;
+import net.perspective.draw.util.CanvasPoint;
+
+/**
+ * Reads drawing items in the binary canvas encoding
+ *
+ * <p>Items are restored complete, except that a {@link StreetMap} must
+ * still be initialised on the FX application thread.
+ *
+ * @see net.perspective.draw.serialise.BinaryCanvasWriter
+ * @author ctipper
+ */
+
+public class BinaryCanvasReader {
+
+    private final DataInputStream in;
+    private final Supplier<Picture> pictures;
+    private final Supplier<StreetMap> streetMaps;
+    private final List<String> strings;
+    private final List<Color> colors;
+    private final List<BasicStroke> strokes;
+    private final long[] previous;
+
+    /**
+     * Creates a new instance of <code>BinaryCanvasReader</code>
+     *
+     * @param in the {@link java.io.InputStream}, which is not closed
+     * @param pictures supplies {@link net.perspective.draw.geom.Picture} instances
+     * @param streetMaps supplies {@link net.perspective.draw.geom.StreetMap} instances
+     */
+    public BinaryCanvasReader(InputStream in, Supplier<Picture> pictures, Supplier<StreetMap> streetMaps) {
+        this.in = new DataInputStream(in);
+        this.pictures = pictures;
+        this.streetMaps = streetMaps;
+        this.strings = new ArrayList<>();
+        this.colors = new ArrayList<>();
+        this.strokes = new ArrayList<>();
+        this.previous = new long[2];
+    }
+
+    /**
+     * Read the header and the list of drawing items
+     *
+     * @return the list of {@link net.perspective.draw.geom.DrawItem}
+     * @throws IOException if the stream fails or is not a canvas encoding
+     */
+    public List<DrawItem> read() throws IOException {
+        if (in.readInt() != BinaryFormat.MAGIC) {
+            throw new IOException("Not a binary canvas");
+        }
+        int version = (int) readVarint();
+        if (version > BinaryFormat.VERSION) {
+            throw new IOException("Unsupported canvas version " + version);
+        }
+        return readItems();
+    }
+
+    private List<DrawItem> readItems() throws IOException {
+        int count = (int) readVarint();
+        List<DrawItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(readItem());
+        }
+        return items;
+    }
+
+    @SuppressWarnings("deprecation")
+    private DrawItem readItem() throws IOException {
+        int tag = in.readUnsignedByte();
+        return switch (tag) {
+            case BinaryFormat.FIGURE, BinaryFormat.EDGE -> readFigure(tag);
+            case BinaryFormat.ARROWLINE -> {
+                ArrowType arrowType = ArrowType.valueOf(readString());
+                BasicStroke arrowStroke = readStroke();
+                ArrowLine arrow = new ArrowLine((Figure) readItem(), arrowType);
+                arrow.setArrowStroke(arrowStroke);
+                yield arrow;
+            }
+            case BinaryFormat.TEXT -> readText();
+            case BinaryFormat.PICTURE -> readPicture(pictures.get());
+            case BinaryFormat.STREETMAP -> {
+                StreetMap map = (StreetMap) readPicture(streetMaps.get());
+                map.setLatitude(in.readDouble());
+                map.setLongitude(in.readDouble());
+                map.setZoom((int) readVarint());
+                yield map;
+            }
+            case BinaryFormat.GROUPED -> {
+                int transparency = (int) readVarint();
+                boolean vertical = in.readBoolean();
+                double angle = in.readDouble();
+                double scale = in.readDouble();
+                Grouped grouped = new Grouped();
+                for (DrawItem item : readItems()) {
+                    grouped.addDrawItem(item);
+                }
+                grouped.setVertical(vertical);
+                grouped.setAngle(angle);
+                grouped.setTransparency(transparency);
+                grouped.setScale(scale);
+                yield grouped;
+            }
+            default -> throw new IOException("Unknown item tag " + tag);
+        };
+    }
+
+    @SuppressWarnings("deprecation")
+    private Figure readFigure(int tag) throws IOException {
+        FigureType type = FigureType.valueOf(readString());
+        Figure figure = tag == BinaryFormat.EDGE ? new Edge(type) : new Figure(type);
+        figure.setTransparency((int) readVarint());
+        figure.setVertical(in.readBoolean());
+        figure.setAngle(in.readDouble());
+        figure.setColor(readColor());
+        figure.setFillColor(readColor());
+        figure.setStroke(readStroke());
+
+        Arrays.fill(previous, 0L);
+        int count = (int) readVarint();
+        if (count > 0) {
+            List<CanvasPoint> points = new ArrayList<>(count - 1);
+            for (int i = 1; i < count; i++) {
+                points.add(new CanvasPoint(readCoordinate(0), readCoordinate(1)));
+            }
+            figure.setPoints(points);
+        }
+
+        figure.restorePath(readPath());
+        figure.setEndPoints();
+        return figure;
+    }
+
+    private Path2D.Double readPath() throws IOException {
+        int rule = in.readUnsignedByte();
+        int count = (int) readVarint();
+        byte[] types = new byte[count];
+        in.readFully(types);
+        Path2D.Double path = new Path2D.Double(rule, Math.max(count, 1));
+        for (byte type : types) {
+            switch (type) {
+                case PathIterator.SEG_MOVETO ->
+                    path.moveTo(readCoordinate(0), readCoordinate(1));
+                case PathIterator.SEG_LINETO ->
+                    path.lineTo(readCoordinate(0), readCoordinate(1));
+                case PathIterator.SEG_QUADTO ->
+                    path.quadTo(readCoordinate(0), readCoordinate(1),
+                        readCoordinate(0), readCoordinate(1));
+                case PathIterator.SEG_CUBICTO ->
+                    path.curveTo(readCoordinate(0), readCoordinate(1),
+                        readCoordinate(0), readCoordinate(1),
+                        readCoordinate(0), readCoordinate(1));
+                case PathIterator.SEG_CLOSE -> path.closePath();
+                default -> throw new IOException("Unknown path segment " + type);
+            }
+        }
+        return path;
+    }
+
+    @SuppressWarnings("deprecation")
+    private Text readText() throws IOException {
+        Text text = new Text();
+        int length = (int) readVarint();
+        if (length == 0) {
+            text.setText(null);
+        } else {
+            byte[] bytes = new byte[length - 1];
+            in.readFully(bytes);
+            text.setText(new String(bytes, StandardCharsets.UTF_8));
+        }
+        text.setFont(readString());
+        text.setStyle((int) readVarint());
+        text.setSize((int) readVarint());
+        text.setColor(readColor());
+        text.setTransparency((int) readVarint());
+        text.setVertical(in.readBoolean());
+        text.setAngle(in.readDouble());
+        text.setStart(in.readDouble(), in.readDouble());
+        if (in.readBoolean()) {
+            text.setEnd(in.readDouble(), in.readDouble());
+        }
+        return text;
+    }
+
+    @SuppressWarnings("deprecation")
+    private Picture readPicture(Picture picture) throws IOException {
+        picture.setImageIndex((int) readVarint());
+        picture.setStart(in.readDouble(), in.readDouble());
+        picture.setEnd(in.readDouble(), in.readDouble());
+        picture.setScale(in.readDouble());
+        picture.setTransparency((int) readVarint());
+        picture.setVertical(in.readBoolean());
+        picture.setAngle(in.readDouble());
+        return picture;
+    }
+
+    private String readString() throws IOException {
+        int ref = (int) readVarint();
+        if (ref == 0) {
+            return null;
+        }
+        if (ref == strings.size() + 1) {
+            strings.add(in.readUTF());
+        }
+        return strings.get(ref - 1);
+    }
+
+    private Color readColor() throws IOException {
+        int ref = (int) readVarint();
+        if (ref == 0) {
+            return null;
+        }
+        if (ref == colors.size() + 1) {
+            colors.add(new Color(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat()));
+        }
+        return colors.get(ref - 1);
+    }
+
+    private BasicStroke readStroke() throws IOException {
+        int ref = (int) readVarint();
+        if (ref == 0) {
+            return null;
+        }
+        if (ref == strokes.size() + 1) {
+            float width = in.readFloat();
+            int cap = (int) readVarint();
+            int join = (int) readVarint();
+            float miter = in.readFloat();
+            int length = (int) readVarint();
+            float[] dash = null;
+            if (length > 0) {
+                dash = new float[length - 1];
+                for (int i = 0; i < dash.length; i++) {
+                    dash[i] = in.readFloat();
+                }
+            }
+            float phase = in.readFloat();
+            strokes.add(new BasicStroke(width, cap, join, miter, dash, phase));
+        }
+        return strokes.get(ref - 1);
+    }
+
+    private double readCoordinate(int axis) throws IOException {
+        long code = readVarint();
+        double value;
+        long fixed;
+        if ((code & 1) == 0) {
+            long zigzag = code >>> 1;
+            fixed = previous[axis] + ((zigzag >>> 1) ^ -(zigzag & 1));
+            value = fixed / BinaryFormat.QUANTUM;
+        } else {
+            value = in.readDouble();
+            fixed = Math.round(value * BinaryFormat.QUANTUM);
+        }
+        previous[axis] = fixed;
+        return value;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+}
@@ -0,0 +1,326 @@
+/**
+ * BinaryCanvasWriter.java
+ *
+ * Created on Oct 17, 2026 4:05:37 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.serialise;
+
+import java.awt.BasicStroke;
+import java.awt.Stroke;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.paint.Color;
+import net.perspective.draw.geom.ArrowLine;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Edge;
+import net.perspective.draw.geom.Figure;
+import net.perspective.draw.geom.Grouped;
+import net.perspective.draw.geom.Picture;
+import net.perspective.draw.geom.StreetMap;
+import net.perspective.draw.geom.Text;
+import net.perspective.draw.util.CanvasPoint;
+
+/**
+ * Writes drawing items in the binary canvas encoding
+ *
+ * @see net.perspective.draw.serialise.BinaryCanvasReader
+ * @author ctipper
+ */
+
+public class BinaryCanvasWriter {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings;
+    private final Map<Color, Integer> colors;
+    private final Map<BasicStroke, Integer> strokes;
+    private final long[] previous;
+
+    /**
+     * Creates a new instance of <code>BinaryCanvasWriter</code>
+     *
+     * @param out the {@link java.io.OutputStream}, which is not closed
+     */
+    public BinaryCanvasWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+        this.strings = new HashMap<>();
+        this.colors = new HashMap<>();
+        this.strokes = new HashMap<>();
+        this.previous = new long[2];
+    }
+
+    /**
+     * Write the header and the list of drawing items
+     *
+     * @param drawings the list of {@link net.perspective.draw.geom.DrawItem}
+     * @throws IOException if the stream fails
+     */
+    public void write(List<DrawItem> drawings) throws IOException {
+        out.writeInt(BinaryFormat.MAGIC);
+        writeVarint(BinaryFormat.VERSION);
+        writeItems(drawings);
+        out.flush();
+    }
+
+    private void writeItems(List<DrawItem> items) throws IOException {
+        writeVarint(items.size());
+        for (DrawItem item : items) {
+            writeItem(item);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void writeItem(DrawItem item) throws IOException {
+        switch (item) {
+            case ArrowLine arrow -> {
+                out.writeByte(BinaryFormat.ARROWLINE);
+                writeString(arrow.getArrowType().name());
+                writeStroke(arrow.getArrowStroke());
+                writeItem(arrow.getLine());
+            }
+            case Edge edge -> {
+                out.writeByte(BinaryFormat.EDGE);
+                writeFigure(edge);
+            }
+            case Figure figure -> {
+                out.writeByte(BinaryFormat.FIGURE);
+                writeFigure(figure);
+            }
+            case StreetMap map -> {
+                out.writeByte(BinaryFormat.STREETMAP);
+                writePicture(map);
+                out.writeDouble(map.getLatitude());
+                out.writeDouble(map.getLongitude());
+                writeVarint(map.getZoom());
+            }
+            case Picture picture -> {
+                out.writeByte(BinaryFormat.PICTURE);
+                writePicture(picture);
+            }
+            case Text text -> {
+                out.writeByte(BinaryFormat.TEXT);
+                writeText(text);
+            }
+            case Grouped grouped -> {
+                out.writeByte(BinaryFormat.GROUPED);
+                writeVarint(grouped.getTransparency());
+                out.writeBoolean(grouped.isVertical());
+                out.writeDouble(grouped.getAngle());
+                out.writeDouble(grouped.getScale());
+                writeItems(grouped.getDrawItems());
+            }
+            default -> throw new IOException("Unsupported item " + item.getClass().getName());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void writeFigure(Figure figure) throws IOException {
+        writeString(figure.getType().name());
+        writeVarint(figure.getTransparency());
+        out.writeBoolean(figure.isVertical());
+        out.writeDouble(figure.getAngle());
+        writeColor(figure.getColor());
+        writeColor(figure.getFillColor());
+        writeStroke(figure.getStroke());
+
+        // delta coding restarts with each figure
+        Arrays.fill(previous, 0L);
+        List<CanvasPoint> points = figure.getPoints();
+        if (points == null) {
+            writeVarint(0);
+        } else {
+            writeVarint(points.size() + 1);
+            for (CanvasPoint p : points) {
+                writePoint(p.x, p.y);
+            }
+        }
+        writePath(figure.getPath());
+    }
+
+    private void writePath(Path2D.Double path) throws IOException {
+        // segments are buffered as the count is not known in advance
+        int count = 0;
+        byte[] types = new byte[32];
+        double[] coords = new double[64];
+        int n = 0;
+        double[] segment = new double[6];
+        for (PathIterator it = path.getPathIterator(null); !it.isDone(); it.next()) {
+            int type = it.currentSegment(segment);
+            int size = switch (type) {
+                case PathIterator.SEG_MOVETO, PathIterator.SEG_LINETO -> 2;
+                case PathIterator.SEG_QUADTO -> 4;
+                case PathIterator.SEG_CUBICTO -> 6;
+                default -> 0;
+            };
+            if (count == types.length) {
+                types = Arrays.copyOf(types, count * 2);
+            }
+            if (n + size > coords.length) {
+                coords = Arrays.copyOf(coords, Math.max(coords.length * 2, n + size));
+            }
+            types[count++] = (byte) type;
+            System.arraycopy(segment, 0, coords, n, size);
+            n += size;
+        }
+        out.writeByte(path.getWindingRule());
+        writeVarint(count);
+        out.write(types, 0, count);
+        for (int i = 0; i < n; i += 2) {
+            writePoint(coords[i], coords[i + 1]);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void writeText(Text text) throws IOException {
+        byte[] bytes = text.getText() == null ? null : text.getText().getBytes(StandardCharsets.UTF_8);
+        if (bytes == null) {
+            writeVarint(0);
+        } else {
+            writeVarint(bytes.length + 1);
+            out.write(bytes);
+        }
+        writeString(text.getFont());
+        writeVarint(text.getStyle());
+        writeVarint(text.getSize());
+        writeColor(text.getColor());
+        writeVarint(text.getTransparency());
+        out.writeBoolean(text.isVertical());
+        out.writeDouble(text.getAngle());
+        out.writeDouble(text.getStart().x);
+        out.writeDouble(text.getStart().y);
+        out.writeBoolean(text.getEnd() != null);
+        if (text.getEnd() != null) {
+            out.writeDouble(text.getEnd().x);
+            out.writeDouble(text.getEnd().y);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void writePicture(Picture picture) throws IOException {
+        writeVarint(picture.getImageIndex());
+        out.writeDouble(picture.getStart().x);
+        out.writeDouble(picture.getStart().y);
+        out.writeDouble(picture.getEnd().x);
+        out.writeDouble(picture.getEnd().y);
+        out.writeDouble(picture.getScale());
+        writeVarint(picture.getTransparency());
+        out.writeBoolean(picture.isVertical());
+        out.writeDouble(picture.getAngle());
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarint(0);
+            return;
+        }
+        Integer ref = strings.get(value);
+        if (ref != null) {
+            writeVarint(ref);
+        } else {
+            ref = strings.size() + 1;
+            strings.put(value, ref);
+            writeVarint(ref);
+            out.writeUTF(value);
+        }
+    }
+
+    private void writeColor(Color color) throws IOException {
+        if (color == null) {
+            writeVarint(0);
+            return;
+        }
+        Integer ref = colors.get(color);
+        if (ref != null) {
+            writeVarint(ref);
+        } else {
+            ref = colors.size() + 1;
+            colors.put(color, ref);
+            writeVarint(ref);
+            // FX colours hold float channels, which are kept exactly
+            out.writeFloat((float) color.getRed());
+            out.writeFloat((float) color.getGreen());
+            out.writeFloat((float) color.getBlue());
+            out.writeFloat((float) color.getOpacity());
+        }
+    }
+
+    private void writeStroke(Stroke stroke) throws IOException {
+        if (!(stroke instanceof BasicStroke bs)) {
+            writeVarint(0);
+            return;
+        }
+        Integer ref = strokes.get(bs);
+        if (ref != null) {
+            writeVarint(ref);
+        } else {
+            ref = strokes.size() + 1;
+            strokes.put(bs, ref);
+            writeVarint(ref);
+            out.writeFloat(bs.getLineWidth());
+            writeVarint(bs.getEndCap());
+            writeVarint(bs.getLineJoin());
+            out.writeFloat(bs.getMiterLimit());
+            float[] dash = bs.getDashArray();
+            if (dash == null) {
+                writeVarint(0);
+            } else {
+                writeVarint(dash.length + 1);
+                for (float d : dash) {
+                    out.writeFloat(d);
+                }
+            }
+            out.writeFloat(bs.getDashPhase());
+        }
+    }
+
+    private void writePoint(double x, double y) throws IOException {
+        writeCoordinate(0, x);
+        writeCoordinate(1, y);
+    }
+
+    private void writeCoordinate(int axis, double value) throws IOException {
+        long fixed = Math.round(value * BinaryFormat.QUANTUM);
+        if (Math.abs(value) < BinaryFormat.LIMIT && fixed / BinaryFormat.QUANTUM == value) {
+            long delta = fixed - previous[axis];
+            writeVarint(((delta << 1) ^ (delta >> 63)) << 1);
+        } else {
+            writeVarint(1);
+            out.writeDouble(value);
+        }
+        previous[axis] = fixed;
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+}
@@ -0,0 +1,60 @@
+/**
+ * BinaryFormat.java
+ *
+ * Created on Oct 17, 2026 4:02:11 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.serialise;
+
+/**
+ * Constants of the binary canvas encoding
+ *
+ * <p>A document is the magic number, a format version and a count of
+ * items, each item is a tag followed by its properties. Strings, colours
+ * and strokes are interned, a reference equal to the size of the table
+ * plus one introduces a new entry and zero stands for null. Coordinates
+ * are written as zig-zag varint deltas of a fixed point value, a value
+ * that is not exactly representable is written as a double instead.
+ * Colours are written as four float channels, the precision of an FX
+ * colour.
+ *
+ * @author ctipper
+ */
+
+final class BinaryFormat {
+
+    static final int MAGIC = 0x47535442;    // GSTB
+    static final int VERSION = 1;
+
+    static final int FIGURE = 1;
+    static final int EDGE = 2;
+    static final int ARROWLINE = 3;
+    static final int TEXT = 4;
+    static final int PICTURE = 5;
+    static final int STREETMAP = 6;
+    static final int GROUPED = 7;
+
+    static final double QUANTUM = 1024.0;   // fixed point steps per unit
+    static final double LIMIT = 1e12;       // largest fixed point magnitude
+
+    private BinaryFormat() {
+    }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * GuideIndex.java
+ *
+ * Created on Oct 17, 2026 3:05:18 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import net.perspective.draw.geom.DrawItem;
+
+/**
+ * Sorted alignment coordinates of drawing items for snap guides
+ *
+ * <p>The left and right edges of each item are held in one sorted array,
+ * as an edge aligns with either edge of another item, and the centres in
+ * another; likewise top, middle and bottom. Nearest coordinates within a
+ * tolerance are found by binary search.
+ *
+ * @author ctipper
+ */
+
+public class GuideIndex {
+
+    /**
+     * The alignment coordinates held by the index
+     */
+    public enum Guide {
+        EDGE_X, CENTRE_X, EDGE_Y, CENTRE_Y
+    }
+
+    private final Map<DrawItem, double[]> extents;
+    private final Axis edgesX, centresX, edgesY, centresY;
+
+    /**
+     * Creates a new instance of <code>GuideIndex</code>
+     */
+    public GuideIndex() {
+        this.extents = new IdentityHashMap<>();
+        this.edgesX = new Axis();
+        this.centresX = new Axis();
+        this.edgesY = new Axis();
+        this.centresY = new Axis();
+    }
+
+    /**
+     * Add or refresh an item
+     *
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     */
+    public void insert(DrawItem item) {
+        this.remove(item);
+        double[] e = extentOf(item);
+        extents.put(item, e);
+        edgesX.add(e[0], item);
+        edgesX.add(e[2], item);
+        centresX.add((e[0] + e[2]) / 2, item);
+        edgesY.add(e[1], item);
+        edgesY.add(e[3], item);
+        centresY.add((e[1] + e[3]) / 2, item);
+    }
+
+    /**
+     * Add or refresh several items, those added are sorted once and merged
+     * with the coordinates held, rather than inserted one at a time
+     *
+     * @param items the {@link net.perspective.draw.geom.DrawItem} collection
+     */
+    public void insertAll(Collection<? extends DrawItem> items) {
+        int count = items.size();
+        Axis.Entry[] ex = new Axis.Entry[2 * count], cx = new Axis.Entry[count];
+        Axis.Entry[] ey = new Axis.Entry[2 * count], cy = new Axis.Entry[count];
+        int i = 0;
+        for (DrawItem item : items) {
+            this.remove(item);
+            double[] e = extentOf(item);
+            extents.put(item, e);
+            ex[2 * i] = new Axis.Entry(e[0], item);
+            ex[2 * i + 1] = new Axis.Entry(e[2], item);
+            cx[i] = new Axis.Entry((e[0] + e[2]) / 2, item);
+            ey[2 * i] = new Axis.Entry(e[1], item);
+            ey[2 * i + 1] = new Axis.Entry(e[3], item);
+            cy[i] = new Axis.Entry((e[1] + e[3]) / 2, item);
+            i++;
+        }
+        edgesX.addAll(ex);
+        centresX.addAll(cx);
+        edgesY.addAll(ey);
+        centresY.addAll(cy);
+    }
+
+    /**
+     * Remove an item
+     *
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     */
+    public void remove(DrawItem item) {
+        double[] e = extents.remove(item);
+        if (e == null) {
+            return;
+        }
+        edgesX.remove(e[0], item);
+        edgesX.remove(e[2], item);
+        centresX.remove((e[0] + e[2]) / 2, item);
+        edgesY.remove(e[1], item);
+        edgesY.remove(e[3], item);
+        centresY.remove((e[1] + e[3]) / 2, item);
+    }
+
+    /**
+     * Empty the index
+     */
+    public void clear() {
+        extents.clear();
+        edgesX.clear();
+        centresX.clear();
+        edgesY.clear();
+        centresY.clear();
+    }
+
+    /**
+     * Find the nearest coordinate to a value within a tolerance
+     *
+     * @param guide the {@link net.perspective.draw.util.GuideIndex.Guide}
+     * @param value the coordinate of the dragged item
+     * @param tolerance the maximum distance
+     * @param excluded items that are ignored
+     * @return the nearest coordinate or NaN if none is within tolerance
+     */
+    public double nearest(Guide guide, double value, double tolerance, Set<DrawItem> excluded) {
+        Axis axis = switch (guide) {
+            case EDGE_X -> edgesX;
+            case CENTRE_X -> centresX;
+            case EDGE_Y -> edgesY;
+            case CENTRE_Y -> centresY;
+        };
+        return axis.nearest(value, tolerance, excluded);
+    }
+
+    /**
+     * Compute the bounds of the item from its transformed corners
+     *
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     * @return min x, min y, max x, max y
+     */
+    public static double[] extentOf(DrawItem item) {
+        CanvasPoint[] corners = { item.getTop()[0], item.getUp()[0], item.getDown()[0], item.getBottom()[0] };
+        double minx = Double.POSITIVE_INFINITY, miny = Double.POSITIVE_INFINITY;
+        double maxx = Double.NEGATIVE_INFINITY, maxy = Double.NEGATIVE_INFINITY;
+        for (CanvasPoint p : corners) {
+            minx = Math.min(minx, p.x);
+            miny = Math.min(miny, p.y);
+            maxx = Math.max(maxx, p.x);
+            maxy = Math.max(maxy, p.y);
+        }
+        return new double[] { minx, miny, maxx, maxy };
+    }
+
+    /**
+     * A sorted array of coordinates and the items they belong to
+     */
+    private static final class Axis {
+
+        private double[] values = new double[64];
+        private DrawItem[] owners = new DrawItem[64];
+        private int size = 0;
+
+        record Entry(double value, DrawItem owner) {
+        }
+
+        void add(double value, DrawItem owner) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+                owners = Arrays.copyOf(owners, size * 2);
+            }
+            int i = lowerBound(value);
+            System.arraycopy(values, i, values, i + 1, size - i);
+            System.arraycopy(owners, i, owners, i + 1, size - i);
+            values[i] = value;
+            owners[i] = owner;
+            size++;
+        }
+
+        void addAll(Entry[] entries) {
+            Arrays.sort(entries, Comparator.comparingDouble(Entry::value));
+            int total = size + entries.length;
+            double[] merged = new double[Math.max(64, Integer.highestOneBit(Math.max(total, 1)) << 1)];
+            DrawItem[] mergedOwners = new DrawItem[merged.length];
+            // merge the sorted entries with those held
+            int i = 0, j = 0, k = 0;
+            while (i < size || j < entries.length) {
+                if (j == entries.length || (i < size && values[i] <= entries[j].value())) {
+                    merged[k] = values[i];
+                    mergedOwners[k++] = owners[i++];
+                } else {
+                    merged[k] = entries[j].value();
+                    mergedOwners[k++] = entries[j++].owner();
+                }
+            }
+            values = merged;
+            owners = mergedOwners;
+            size = total;
+        }
+
+        void remove(double value, DrawItem owner) {
+            for (int i = lowerBound(value); i < size && values[i] == value; i++) {
+                if (owners[i] == owner) {
+                    System.arraycopy(values, i + 1, values, i, size - i - 1);
+                    System.arraycopy(owners, i + 1, owners, i, size - i - 1);
+                    owners[--size] = null;
+                    return;
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(owners, 0, size, null);
+            size = 0;
+        }
+
+        double nearest(double value, double tolerance, Set<DrawItem> excluded) {
+            double best = Double.NaN;
+            double distance = tolerance;
+            for (int i = lowerBound(value - tolerance); i < size && values[i] <= value + tolerance; i++) {
+                double d = Math.abs(values[i] - value);
+                if (d <= distance && !excluded.contains(owners[i])) {
+                    best = values[i];
+                    distance = d;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * First index whose value is not less than the given value
+         */
+        private int lowerBound(double value) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+}
@@ -0,0 +1,372 @@
+/*
+ * PNGWriter.java
+ *
+ * Created on Oct 17, 2026 5:14:26 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a PNG image row by row, so that the whole image need never be
+ * held in memory
+ *
+ * <p>Rows are given as ARGB pixels, as held by a {@code TYPE_INT_ARGB}
+ * {@link java.awt.image.BufferedImage}, and written as 8 bit RGBA, or RGB
+ * for an opaque image. Rows are filtered with the given filter, by default
+ * whichever of the standard filters gives the smallest sum of absolute
+ * differences for each row.
+ *
+ * <p>The filtered data is compressed in independent blocks, concurrently
+ * if an executor is given. Each block is primed with the last 32K of the
+ * data before it and ends with a sync flush, so the compressed blocks
+ * concatenate into a single zlib stream.
+ *
+ * @author ctipper
+ */
+
+public class PNGWriter {
+
+    /**
+     * The filter applied to each row
+     */
+    public enum Filter {
+        NONE, SUB, UP, AVERAGE, PAETH, ADAPTIVE
+    }
+
+    private final DataOutputStream out;
+    private final int width, height;
+    private final int channels;
+    private final int level;
+    private final Filter filter;
+    private final Executor executor;
+    private final ChunkStream idat;
+    private final Adler32 adler;
+    private final Deque<CompletableFuture<byte[]>> pending;
+    private byte[] previous, current;
+    private final byte[][] filtered;
+    private byte[] block, dictionary;
+    private int length;
+    private int rows;
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int BLOCK_SIZE = 1 << 17;      // filtered bytes compressed together
+    private static final int WINDOW = 1 << 15;          // deflate window
+    private static final int IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a new instance of <code>PNGWriter</code> with default
+     * compression and adaptive filtering, and writes the header
+     *
+     * @param out the {@link java.io.OutputStream}, which is not closed
+     * @param width the image width
+     * @param height the image height
+     * @param opaque write without an alpha channel
+     * @throws IOException if the stream fails
+     */
+    public PNGWriter(OutputStream out, int width, int height, boolean opaque) throws IOException {
+        this(out, width, height, opaque, Deflater.DEFAULT_COMPRESSION, Filter.ADAPTIVE, null);
+    }
+
+    /**
+     * Creates a new instance of <code>PNGWriter</code> and writes the header
+     *
+     * @param out the {@link java.io.OutputStream}, which is not closed
+     * @param width the image width
+     * @param height the image height
+     * @param opaque write without an alpha channel
+     * @param level the compression level 0-9 or -1 for the default
+     * @param filter the {@link net.perspective.draw.util.PNGWriter.Filter}
+     * @param executor compresses blocks concurrently, or null to compress in the caller
+     * @throws IOException if the stream fails
+     */
+    public PNGWriter(OutputStream out, int width, int height, boolean opaque,
+            int level, Filter filter, Executor executor) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.width = width;
+        this.height = height;
+        this.channels = opaque ? 3 : 4;
+        this.level = level;
+        this.filter = filter;
+        this.executor = executor;
+        this.previous = new byte[width * channels];
+        this.current = new byte[width * channels];
+        this.filtered = new byte[5][width * channels + 1];
+        this.block = new byte[BLOCK_SIZE + width * channels + 1];
+        this.dictionary = null;
+        this.length = 0;
+        this.rows = 0;
+
+        this.out.write(SIGNATURE);
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream(13);
+        DataOutputStream header = new DataOutputStream(ihdr);
+        header.writeInt(width);
+        header.writeInt(height);
+        header.writeByte(8);                    // bit depth
+        header.writeByte(opaque ? 2 : 6);       // truecolour, with alpha
+        header.writeByte(0);                    // deflate
+        header.writeByte(0);                    // adaptive filtering
+        header.writeByte(0);                    // no interlace
+        this.writeChunk("IHDR", ihdr.toByteArray(), 13);
+
+        this.idat = new ChunkStream();
+        this.adler = new Adler32();
+        this.pending = new ArrayDeque<>();
+        // zlib header, no preset dictionary
+        int cmf = 0x78;
+        int flevel = level < 0 || level == 6 ? 2 : level < 2 ? 0 : level < 6 ? 1 : 3;
+        int flg = flevel << 6;
+        flg += 31 - ((cmf << 8) + flg) % 31;
+        idat.write(cmf);
+        idat.write(flg);
+    }
+
+    /**
+     * Write rows of pixels
+     *
+     * @param argb the pixels
+     * @param offset the index of the first pixel
+     * @param scansize the distance between rows
+     * @param count the number of rows
+     * @throws IOException if the stream fails
+     */
+    public void writeRows(int[] argb, int offset, int scansize, int count) throws IOException {
+        if (rows + count > height) {
+            throw new IllegalStateException("Too many rows");
+        }
+        for (int r = 0; r < count; r++) {
+            int p = offset + r * scansize;
+            int i = 0;
+            for (int x = 0; x < width; x++) {
+                int pixel = argb[p + x];
+                current[i++] = (byte) (pixel >> 16);
+                current[i++] = (byte) (pixel >> 8);
+                current[i++] = (byte) pixel;
+                if (channels == 4) {
+                    current[i++] = (byte) (pixel >>> 24);
+                }
+            }
+            byte[] row = this.filter();
+            adler.update(row);
+            System.arraycopy(row, 0, block, length, row.length);
+            length += row.length;
+            if (length >= BLOCK_SIZE) {
+                this.compressBlock(false);
+            }
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        rows += count;
+    }
+
+    /**
+     * Complete the image data and write the trailer
+     *
+     * @throws IOException if the stream fails
+     */
+    public void finish() throws IOException {
+        if (rows != height) {
+            throw new IllegalStateException("Expected " + height + " rows, found " + rows);
+        }
+        this.compressBlock(true);
+        while (!pending.isEmpty()) {
+            this.writeBlock(pending.poll());
+        }
+        int checksum = (int) adler.getValue();
+        idat.write(checksum >>> 24);
+        idat.write(checksum >>> 16);
+        idat.write(checksum >>> 8);
+        idat.write(checksum);
+        idat.flush();
+        this.writeChunk("IEND", new byte[0], 0);
+        out.flush();
+    }
+
+    private void compressBlock(boolean last) throws IOException {
+        byte[] raw = Arrays.copyOf(block, length);
+        byte[] primer = dictionary;
+        if (length >= WINDOW) {
+            dictionary = Arrays.copyOfRange(block, length - WINDOW, length);
+        }
+        length = 0;
+        pending.add(executor == null
+            ? CompletableFuture.completedFuture(this.compress(raw, primer, last))
+            : CompletableFuture.supplyAsync(() -> this.compress(raw, primer, last), executor));
+        // write completed blocks in order, and bound those in flight
+        while (!pending.isEmpty() && (pending.peek().isDone() || pending.size() > IN_FLIGHT)) {
+            this.writeBlock(pending.poll());
+        }
+    }
+
+    private void writeBlock(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            byte[] data = future.join();
+            idat.write(data, 0, data.length);
+        } catch (CompletionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Deflate a block without zlib wrapping, ending with a sync flush so
+     * that the next block starts on a byte boundary
+     */
+    private byte[] compress(byte[] raw, byte[] primer, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (primer != null) {
+                deflater.setDictionary(primer);
+            }
+            deflater.setInput(raw);
+            if (last) {
+                deflater.finish();
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] buffer = new byte[CHUNK_SIZE];
+            if (last) {
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buffer);
+                    bos.write(buffer, 0, n);
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    bos.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return bos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] filter() {
+        int bpp = channels;
+        int n = current.length;
+        long best = Long.MAX_VALUE;
+        int choice = 0;
+        int first = filter == Filter.ADAPTIVE ? 0 : filter.ordinal();
+        int bound = filter == Filter.ADAPTIVE ? 5 : first + 1;
+        for (int type = first; type < bound; type++) {
+            byte[] f = filtered[type];
+            f[0] = (byte) type;
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                int x = current[i] & 0xFF;
+                int a = i >= bpp ? current[i - bpp] & 0xFF : 0;
+                int b = previous[i] & 0xFF;
+                int c = i >= bpp ? previous[i - bpp] & 0xFF : 0;
+                int v = switch (type) {
+                    case 1 -> x - a;
+                    case 2 -> x - b;
+                    case 3 -> x - ((a + b) >> 1);
+                    case 4 -> x - paeth(a, b, c);
+                    default -> x;
+                };
+                f[i + 1] = (byte) v;
+                sum += Math.abs((byte) v);
+            }
+            if (sum < best) {
+                best = sum;
+                choice = type;
+            }
+        }
+        return filtered[choice];
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(name);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Collects deflated data into IDAT chunks
+     */
+    private final class ChunkStream extends OutputStream {
+
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int count = 0;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                this.flush();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    this.flush();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (count > 0) {
+                writeChunk("IDAT", buffer, count);
+                count = 0;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * RasterLayer.java
+ *
+ * Created on Oct 17, 2026 2:12:40 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+
+/**
+ * Rasterises the static nodes of the canvas into tiles while the user
+ * interacts with a selection
+ *
+ * <p>The static nodes are hidden and shown by the tiles, so that only the
+ * live nodes are composited each pulse. Tiles are rendered again where an
+ * item changes during the interaction.
+ *
+ * @author ctipper
+ */
+
+public class RasterLayer {
+
+    private final Group backdrop;
+    private final Set<Node> hidden;
+    private final List<ImageView> tiles;
+    private boolean active;
+
+    private static final double TILE_SIZE = 512.0;
+
+    /**
+     * Creates a new instance of <code>RasterLayer</code>
+     */
+    public RasterLayer() {
+        this.backdrop = new Group();
+        this.backdrop.setMouseTransparent(true);
+        this.hidden = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.tiles = new ArrayList<>();
+        this.active = false;
+    }
+
+    /**
+     * The group holding the tiles, to be placed beneath the live nodes
+     *
+     * @return the {@link javafx.scene.Group}
+     */
+    public Group getBackdrop() {
+        return backdrop;
+    }
+
+    /**
+     * Are static nodes rasterised
+     *
+     * @return the layer is active
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Is the node shown by the tiles
+     *
+     * @param node the {@link javafx.scene.Node}
+     * @return the node is rasterised
+     */
+    public boolean isHidden(Node node) {
+        return hidden.contains(node);
+    }
+
+    /**
+     * Rasterise the static nodes into tiles covering the canvas and hide
+     * them, the backdrop should already be attached to the canvas
+     *
+     * @param canvas the canvas root {@link javafx.scene.Group}
+     * @param statics the nodes not involved in the interaction
+     * @param width canvas width
+     * @param height canvas height
+     */
+    public void begin(Group canvas, List<Node> statics, double width, double height) {
+        statics.stream().filter(Node::isVisible).forEach(hidden::add);
+        for (double y = 0; y < height; y += TILE_SIZE) {
+            for (double x = 0; x < width; x += TILE_SIZE) {
+                ImageView tile = new ImageView();
+                tile.setX(x);
+                tile.setY(y);
+                tile.setFitWidth(TILE_SIZE);
+                tile.setFitHeight(TILE_SIZE);
+                tiles.add(tile);
+            }
+        }
+        this.render(canvas, tiles);
+        backdrop.getChildren().setAll(tiles);
+        hidden.forEach(node -> node.setVisible(false));
+        active = true;
+    }
+
+    /**
+     * Exchange a rasterised node for its replacement, which is hidden
+     *
+     * @param node the replaced {@link javafx.scene.Node}
+     * @param update the replacement {@link javafx.scene.Node}
+     */
+    public void replace(Node node, Node update) {
+        if (hidden.remove(node)) {
+            hidden.add(update);
+            update.setVisible(false);
+        }
+    }
+
+    /**
+     * Render again the tiles that intersect the given region
+     *
+     * @param canvas the canvas root {@link javafx.scene.Group}
+     * @param minx min x
+     * @param miny min y
+     * @param maxx max x
+     * @param maxy max y
+     */
+    public void invalidate(Group canvas, double minx, double miny, double maxx, double maxy) {
+        List<ImageView> stale = new ArrayList<>();
+        for (ImageView tile : tiles) {
+            if (tile.getX() <= maxx && minx <= tile.getX() + TILE_SIZE
+                    && tile.getY() <= maxy && miny <= tile.getY() + TILE_SIZE) {
+                stale.add(tile);
+            }
+        }
+        if (!stale.isEmpty()) {
+            this.render(canvas, stale);
+        }
+    }
+
+    /**
+     * Show the static nodes and discard the tiles
+     */
+    public void end() {
+        hidden.forEach(node -> node.setVisible(true));
+        hidden.clear();
+        tiles.clear();
+        backdrop.getChildren().clear();
+        active = false;
+    }
+
+    private void render(Group canvas, List<ImageView> targets) {
+        // only the static nodes are drawn to the tiles
+        List<Node> shown = new ArrayList<>();
+        for (Node node : canvas.getChildren()) {
+            if (node.isVisible() && !hidden.contains(node)) {
+                shown.add(node);
+            }
+        }
+        shown.forEach(node -> node.setVisible(false));
+        hidden.forEach(node -> node.setVisible(true));
+        double scale = canvas.getScene() != null && canvas.getScene().getWindow() != null
+                ? canvas.getScene().getWindow().getOutputScaleX() : 1.0;
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        params.setTransform(Transform.scale(scale, scale));
+        for (ImageView tile : targets) {
+            params.setViewport(new Rectangle2D(tile.getX() * scale, tile.getY() * scale,
+                TILE_SIZE * scale, TILE_SIZE * scale));
+            tile.setImage(canvas.snapshot(params, null));
+        }
+        hidden.forEach(node -> node.setVisible(false));
+        shown.forEach(node -> node.setVisible(true));
+    }
+
+}
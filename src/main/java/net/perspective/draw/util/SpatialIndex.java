@@ -0,0 +1,246 @@
+/*
+ * SpatialIndex.java
+ *
+ * Created on Oct 17, 2026 9:12:40 AM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.perspective.draw.geom.DrawItem;
+
+/**
+ * A uniform grid of buckets keyed on the transformed extent of each
+ * {@link net.perspective.draw.geom.DrawItem}, used to narrow hit-testing
+ * to the items under the pointer.
+ *
+ * <p>The extent of an item is the bounding box of its transformed shape
+ * together with its four transformed corners, so that anchor regions lying
+ * outside the shape itself are still found. Items are keyed by identity.
+ *
+ * @author ctipper
+ */
+
+public class SpatialIndex {
+
+    private final Map<Long, List<DrawItem>> cells;
+    private final Map<DrawItem, double[]> extents;
+    private final Set<DrawItem> oversize;
+
+    private static final double CELL_SIZE = 256.0;
+    private static final int MAX_CELLS = 256;        // larger items are kept outside the grid
+
+    /**
+     * Creates a new instance of <code>SpatialIndex</code>
+     */
+    public SpatialIndex() {
+        this.cells = new HashMap<>();
+        this.extents = new IdentityHashMap<>();
+        this.oversize = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Add an item, or re-index it if its extent has changed
+     *
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     */
+    public void insert(DrawItem item) {
+        if (item == null) {
+            return;
+        }
+        this.remove(item);
+        double[] e = extentOf(item);
+        extents.put(item, e);
+        int x0 = cell(e[0]), y0 = cell(e[1]);
+        int x1 = cell(e[2]), y1 = cell(e[3]);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_CELLS) {
+            oversize.add(item);
+            return;
+        }
+        for (int i = x0; i <= x1; i++) {
+            for (int j = y0; j <= y1; j++) {
+                cells.computeIfAbsent(key(i, j), k -> new ArrayList<>()).add(item);
+            }
+        }
+    }
+
+    /**
+     * Remove an item from the index
+     *
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     */
+    public void remove(DrawItem item) {
+        double[] e = extents.remove(item);
+        if (e == null) {
+            return;
+        }
+        if (oversize.remove(item)) {
+            return;
+        }
+        int x0 = cell(e[0]), y0 = cell(e[1]);
+        int x1 = cell(e[2]), y1 = cell(e[3]);
+        for (int i = x0; i <= x1; i++) {
+            for (int j = y0; j <= y1; j++) {
+                Long k = key(i, j);
+                List<DrawItem> bucket = cells.get(k);
+                if (bucket != null) {
+                    bucket.removeIf(d -> d == item);
+                    if (bucket.isEmpty()) {
+                        cells.remove(k);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Empty the index
+     */
+    public void clear() {
+        cells.clear();
+        extents.clear();
+        oversize.clear();
+    }
+
+    /**
+     * Return the items whose extent lies within margin of a point
+     *
+     * @param x canvas coordinate
+     * @param y canvas coordinate
+     * @param margin the hit tolerance
+     * @return an identity set of candidate items
+     */
+    public Set<DrawItem> query(double x, double y, double margin) {
+        return this.query(x - margin, y - margin, x + margin, y + margin);
+    }
+
+    /**
+     * Return the items whose extent intersects the given region
+     *
+     * @param region the {@link java.awt.geom.Rectangle2D}
+     * @return an identity set of candidate items
+     */
+    public Set<DrawItem> query(Rectangle2D region) {
+        return this.query(region.getMinX(), region.getMinY(), region.getMaxX(), region.getMaxY());
+    }
+
+    private Set<DrawItem> query(double minx, double miny, double maxx, double maxy) {
+        Set<DrawItem> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        int x0 = cell(minx), y0 = cell(miny);
+        int x1 = cell(maxx), y1 = cell(maxy);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > cells.size()) {
+            // region larger than the populated grid, test every extent
+            for (Map.Entry<DrawItem, double[]> entry : extents.entrySet()) {
+                if (overlaps(entry.getValue(), minx, miny, maxx, maxy)) {
+                    found.add(entry.getKey());
+                }
+            }
+            return found;
+        }
+        for (int i = x0; i <= x1; i++) {
+            for (int j = y0; j <= y1; j++) {
+                List<DrawItem> bucket = cells.get(key(i, j));
+                if (bucket != null) {
+                    for (DrawItem item : bucket) {
+                        if (overlaps(extents.get(item), minx, miny, maxx, maxy)) {
+                            found.add(item);
+                        }
+                    }
+                }
+            }
+        }
+        for (DrawItem item : oversize) {
+            if (overlaps(extents.get(item), minx, miny, maxx, maxy)) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Does the indexed extent of the item intersect the given region
+     *
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     * @param region the {@link java.awt.geom.Rectangle2D}
+     * @return the item is indexed and intersects the region
+     */
+    public boolean intersects(DrawItem item, Rectangle2D region) {
+        double[] e = extents.get(item);
+        return e != null && overlaps(e, region.getMinX(), region.getMinY(), region.getMaxX(), region.getMaxY());
+    }
+
+    /**
+     * Return the indexed extent of the item
+     *
+     * @param item the {@link net.perspective.draw.geom.DrawItem}
+     * @return the {@link java.awt.geom.Rectangle2D} or null if the item is not indexed
+     */
+    public Rectangle2D getExtent(DrawItem item) {
+        double[] e = extents.get(item);
+        return e == null ? null : new Rectangle2D.Double(e[0], e[1], e[2] - e[0], e[3] - e[1]);
+    }
+
+    /**
+     * Return the number of indexed items
+     *
+     * @return size
+     */
+    public int size() {
+        return extents.size();
+    }
+
+    private static double[] extentOf(DrawItem item) {
+        Rectangle2D b = item.bounds().getBounds2D();
+        double minx = b.getMinX(), miny = b.getMinY();
+        double maxx = b.getMaxX(), maxy = b.getMaxY();
+        CanvasPoint[] corners = { item.getTop()[0], item.getUp()[0], item.getDown()[0], item.getBottom()[0] };
+        for (CanvasPoint p : corners) {
+            minx = Math.min(minx, p.x);
+            miny = Math.min(miny, p.y);
+            maxx = Math.max(maxx, p.x);
+            maxy = Math.max(maxy, p.y);
+        }
+        return new double[] { minx, miny, maxx, maxy };
+    }
+
+    /**
+     * Closed interval test, so that zero width or height extents such as
+     * horizontal lines are still found
+     */
+    private static boolean overlaps(double[] e, double minx, double miny, double maxx, double maxy) {
+        return e[0] <= maxx && minx <= e[2] && e[1] <= maxy && miny <= e[3];
+    }
+
+    private static int cell(double v) {
+        return (int) Math.floor(v / CELL_SIZE);
+    }
+
+    private static Long key(int i, int j) {
+        return ((long) i << 32) | (j & 0xffffffffL);
+    }
+
+}
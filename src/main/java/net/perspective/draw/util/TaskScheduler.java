@@ -0,0 +1,266 @@
+/*
+ * TaskScheduler.java
+ *
+ * Created on Oct 17, 2026 8:04:37 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.application.Platform;
+
+/**
+ * Runs background work in separate lanes
+ *
+ * <p>Rendering and image encoding share a CPU lane bounded to the given
+ * number of threads, in which interactive work is taken before background
+ * work. Jobs and the I/O and waiting they do run on virtual threads, at
+ * most a given number of jobs at once. A job submitted with a key
+ * supersedes any job with the same key that has yet to start, and jobs
+ * with the same key run one at a time. Delayed UI updates are run from a
+ * timer rather than by sleeping a pool thread.
+ *
+ * @author ctipper
+ */
+
+public class TaskScheduler {
+
+    /**
+     * The priority of work in the CPU lane
+     */
+    public enum Priority {
+        INTERACTIVE, BACKGROUND
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService io;
+    private final ScheduledExecutorService timer;
+    private final Semaphore permits;
+    private final AtomicLong sequence;
+    private final Map<Object, RunnableFuture<?>> pending;
+    private final Set<Object> running;
+
+    /**
+     * Creates a new instance of <code>TaskScheduler</code>
+     *
+     * @param threads the number of CPU lane threads
+     * @param jobs the number of jobs run at once
+     */
+    public TaskScheduler(int threads, int jobs) {
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+            new PriorityBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "render-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                // yield to the FX application thread
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+        this.pool.allowCoreThreadTimeOut(true);
+        this.io = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("io-", 0).factory());
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ui-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.permits = new Semaphore(jobs, true);
+        this.sequence = new AtomicLong();
+        this.pending = new HashMap<>();
+        this.running = new HashSet<>();
+    }
+
+    /**
+     * Return an executor for the CPU lane
+     *
+     * @param priority the priority of work submitted
+     * @return the {@link java.util.concurrent.ExecutorService}
+     */
+    public ExecutorService cpu(Priority priority) {
+        return new Lane(priority);
+    }
+
+    /**
+     * Return an executor that runs each task on a virtual thread, for I/O
+     * and waiting within a job
+     *
+     * @return the {@link java.util.concurrent.ExecutorService}
+     */
+    public ExecutorService io() {
+        return io;
+    }
+
+    /**
+     * Submit a job to run on a virtual thread
+     *
+     * <p>Where a job with the same key is waiting to start it is cancelled,
+     * and where one is running this job starts when it completes.
+     *
+     * @param key identifies jobs that supersede each other, or null
+     * @param job the job, usually a {@link javafx.concurrent.Task}
+     */
+    public void submit(Object key, RunnableFuture<?> job) {
+        if (key != null) {
+            RunnableFuture<?> superseded;
+            synchronized (this) {
+                superseded = pending.put(key, job);
+                if (running.add(key)) {
+                    pending.remove(key);
+                } else {
+                    job = null;
+                }
+            }
+            if (superseded != null) {
+                superseded.cancel(false);
+            }
+            if (job == null) {
+                return;
+            }
+        }
+        this.start(key, job);
+    }
+
+    private void start(Object key, RunnableFuture<?> job) {
+        io.execute(() -> {
+            boolean acquired = false;
+            try {
+                permits.acquire();
+                acquired = true;
+                job.run();
+            } catch (InterruptedException e) {
+                job.cancel(false);
+            } finally {
+                if (acquired) {
+                    permits.release();
+                }
+                if (key != null) {
+                    this.next(key);
+                }
+            }
+        });
+    }
+
+    private void next(Object key) {
+        RunnableFuture<?> job;
+        synchronized (this) {
+            job = pending.remove(key);
+            if (job == null) {
+                running.remove(key);
+                return;
+            }
+        }
+        this.start(key, job);
+    }
+
+    /**
+     * Run an action on the FX application thread after a delay
+     *
+     * @param delay the delay in milliseconds
+     * @param action the action
+     * @return the {@link java.util.concurrent.ScheduledFuture}
+     */
+    public ScheduledFuture<?> runLater(long delay, Runnable action) {
+        return timer.schedule(() -> Platform.runLater(action), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop accepting work, work already submitted is completed
+     */
+    public void shutdown() {
+        pool.shutdown();
+        io.shutdown();
+        timer.shutdown();
+    }
+
+    /**
+     * A view of the CPU lane that submits work at one priority
+     */
+    private final class Lane extends AbstractExecutorService {
+
+        private final Priority priority;
+
+        Lane(Priority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            pool.execute(new Work(command, priority, sequence.getAndIncrement()));
+        }
+
+        @Override
+        public void shutdown() {
+            pool.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return pool.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return pool.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return pool.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return pool.awaitTermination(timeout, unit);
+        }
+    }
+
+    /**
+     * Work queued in priority then submission order
+     */
+    private record Work(Runnable command, Priority priority, long order) implements Runnable, Comparable<Work> {
+
+        @Override
+        public void run() {
+            command.run();
+        }
+
+        @Override
+        public int compareTo(Work other) {
+            int compare = priority.compareTo(other.priority);
+            return compare != 0 ? compare : Long.compare(order, other.order);
+        }
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * BundleWorker.java
+ *
+ * Created on Oct 17, 2026 7:03:18 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import javafx.concurrent.Task;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import net.perspective.draw.ApplicationController;
+import net.perspective.draw.CanvasView;
+import net.perspective.draw.DocumentSnapshot;
+import net.perspective.draw.ShareUtils;
+import net.perspective.draw.util.FileUtils;
+import net.perspective.draw.util.Messages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports a drawing to several formats in a single pass
+ *
+ * <p>The drawing is prepared once and rendered to each format
+ * concurrently. Each output is written beside its target and moved into
+ * place only once every format has been written.
+ *
+ * @author ctipper
+ */
+
+public class BundleWorker extends Task<Object> {
+
+    private final CanvasView view;
+    private final ApplicationController controller;
+    @Inject ShareUtils share;
+    @Inject Provider<PNGWorker> pngWorkerProvider;
+    @Inject Provider<SVGWorker> svgWorkerProvider;
+    @Inject Provider<PDFWorker> pdfWorkerProvider;
+    private File file;
+    private List<String> formats;
+    private boolean opacity;
+    private double margin;
+    private DocumentSnapshot snapshot;
+    private boolean success;
+
+    /**
+     * The formats exported
+     */
+    public static final List<String> FORMATS = List.of("png", "svg", "pdf");
+
+    private static final Logger logger = LoggerFactory.getLogger(BundleWorker.class.getName());
+
+    @Inject
+    public BundleWorker(CanvasView view, ApplicationController controller) {
+        this.view = view;
+        this.controller = controller;
+        this.formats = FORMATS;
+        this.opacity = true;
+        this.margin = 0.0;
+        this.success = false;
+    }
+
+    /**
+     * Set the file named for each format by its extension
+     *
+     * @param file the file
+     */
+    public void setFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Set the formats exported
+     *
+     * @param formats a list of png, svg and pdf
+     */
+    public void setFormats(List<String> formats) {
+        this.formats = formats;
+    }
+
+    public void setOpacity(boolean opacity) {
+        this.opacity = opacity;
+    }
+
+    public void setMargin(double margin) {
+        this.margin = margin;
+    }
+
+    /**
+     * Export a snapshot of the drawing, taken on the FX application thread,
+     * which must be set before the export starts
+     * 
+     * @param snapshot the {@link net.perspective.draw.DocumentSnapshot}
+     */
+    public void setSnapshot(DocumentSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Export in the calling thread without reporting to the controller
+     * 
+     * @return true if every format was written, otherwise no file is replaced
+     */
+    public boolean export() {
+        new Serialiser();
+        return success;
+    }
+
+    @Override
+    protected Object call() throws Exception {
+        logger.info("Bundle export started...");
+        return new Serialiser();
+    }
+
+    @Override
+    public void done() {
+        if (this.isCancelled()) {
+            // superseded by a later job, which reports instead
+            return;
+        }
+        logger.info("Bundle export completed.");
+        // introduce a minimum visible interval
+        share.scheduler.runLater(success ? 300 : 0, () -> {
+            controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
+            controller.setStatusMessage(Messages.get(success ? "status.exportedAll" : "status.exportFailed"));
+        });
+    }
+
+    final class Serialiser {
+
+        Serialiser() {
+            logger.info("Bundle export initialised.");
+            this.make();
+        }
+
+        public void make() {
+            if (snapshot == null) {
+                throw new IllegalStateException("No snapshot to export");
+            }
+            final RenderList list = RenderList.prepare(snapshot, share.render);
+            final File directory = file.getAbsoluteFile().getParentFile();
+            final String name = FileUtils.getNameWithoutExtension(file.getName());
+
+            // rendered files and their targets
+            Map<File, File> outputs = new LinkedHashMap<>();
+            try {
+                List<CompletableFuture<Boolean>> exports = new ArrayList<>(formats.size());
+                for (String format : formats) {
+                    File output = File.createTempFile("." + name + "-", "." + format, directory);
+                    outputs.put(output, new File(directory, name + "." + format));
+                    Supplier<Boolean> export = switch (format) {
+                        case "png" -> {
+                            PNGWorker pngWorker = pngWorkerProvider.get();
+                            pngWorker.setFile(output);
+                            pngWorker.setOpacity(opacity);
+                            pngWorker.setMargin(margin);
+                            pngWorker.setRenderList(list);
+                            yield pngWorker::export;
+                        }
+                        case "svg" -> {
+                            SVGWorker svgWorker = svgWorkerProvider.get();
+                            svgWorker.setFile(output);
+                            svgWorker.setMargin(margin);
+                            svgWorker.setRenderList(list);
+                            yield svgWorker::export;
+                        }
+                        case "pdf" -> {
+                            PDFWorker pdfWorker = pdfWorkerProvider.get();
+                            pdfWorker.setFile(output);
+                            pdfWorker.setMargin(margin);
+                            pdfWorker.setRenderList(list);
+                            yield pdfWorker::export;
+                        }
+                        default -> throw new IllegalArgumentException("Unknown format " + format);
+                    };
+                    exports.add(CompletableFuture.supplyAsync(export, share.executor));
+                }
+                CompletableFuture.allOf(exports.toArray(CompletableFuture[]::new)).join();
+                for (CompletableFuture<Boolean> export : exports) {
+                    if (!export.join()) {
+                        // the user's files are kept as they were
+                        logger.warn("Bundle export failed, no files replaced");
+                        return;
+                    }
+                }
+
+                // write the outputs together once all are rendered
+                for (Map.Entry<File, File> entry : outputs.entrySet()) {
+                    Files.move(entry.getKey().toPath(), entry.getValue().toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+                }
+                outputs.clear();
+                success = true;
+            } catch (IOException e) {
+                logger.warn(e.getMessage());
+            } catch (CompletionException e) {
+                logger.warn("Bundle export failed: {}", e.getCause().getMessage());
+            } finally {
+                for (File output : outputs.keySet()) {
+                    output.delete();
+                }
+            }
+        }
+    }
+
+}
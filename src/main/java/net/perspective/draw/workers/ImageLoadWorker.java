@@ -26,6 +26,7 @@
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -33,7 +34,7 @@
 import javafx.concurrent.Task;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
-import javax.imageio.ImageIO;
+import javafx.stage.Screen;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import net.perspective.draw.ApplicationController;
@@ -55,8 +56,6 @@
 
 public class ImageLoadWorker extends Task<Object> {
 
-    private List<Image> images;
-    private List<File> loadedFiles;
     private final DrawingArea drawarea;
     private final CanvasView view;
     private final ApplicationController controller;
@@ -65,6 +64,7 @@ public class ImageLoadWorker extends Task<Object> {
     @Inject Provider<Picture> pictureProvider;
     private List<File> imageFiles;
     private double shift;
+    private final double outputScale;
     private boolean success;
 
     private static final Logger logger = LoggerFactory.getLogger(ImageLoadWorker.class.getName());
@@ -75,6 +75,8 @@ public ImageLoadWorker(DrawingArea drawarea, CanvasView view, ApplicationControl
         this.view = view;
         this.controller = controller;
         this.shift = 20.0;
+        // workers are created on the FX application thread
+        this.outputScale = Screen.getPrimary().getOutputScaleX();
         success = false;
     }
 
@@ -88,80 +90,109 @@ protected Object call() throws Exception {
     public void done() {
         logger.info("Reading images complete.");
         Platform.runLater(() -> {
-            if (!images.isEmpty()) {
-                for (int i = 0; i < images.size(); i++) {
-                    Image image = images.get(i);
-                    Picture picture = pictureProvider.get();
-                    picture.setStart(shift, shift);
-                    ImageItem item = new ImageItem(image);
-                    item.setFormat(FileUtils.getExtension(loadedFiles.get(i)));
-                    int index = view.setImageItem(item);
-                    double width = (double) image.getWidth();
-                    double height = (double) image.getHeight();
-                    double scale = drawarea.fitScale(width, height);
-                    logger.trace("Image relative scale: {}", scale);
-                    picture.setImage(index, width, height);
-                    picture.setScale(scale);
-                    view.setNewItem(picture);
-                    view.resetNewItem();
-                    shift = shift + 10.0;
-                }
-            }
             share.setImageFiles(null);
         });
-        CompletableFuture.runAsync(() -> {
-            try {
-                // introduce a minimum visible interval
-                if (success) {
-                    Thread.sleep(300);
-                }
-            } catch (InterruptedException e) {
+        // introduce a minimum visible interval
+        share.scheduler.runLater(success ? 300 : 0, () -> {
+            controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
+            controller.getProgressProperty().unbind();
+            if (success) {
+                controller.setStatusMessage(Messages.get("status.readPictures"));
             }
-        }, share.executor).thenRun(() -> {
-            Platform.runLater(() -> {
-                controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
-                controller.getProgressProperty().unbind();
-                if (success) {
-                    controller.setStatusMessage(Messages.get("status.readPictures"));
-                }
-            });
         });
     }
 
+    /**
+     * An image read from a file with its size at full resolution
+     */
+    private record LoadedImage(ImageItem item, double width, double height) {
+    }
+
     final class ImageLoader {
 
         ImageLoader() {
             logger.info("Reading images initialised.");
-            try {
-                success = true;
-                this.make();
-            } catch (IOException e) {
-                logger.warn(e.getMessage());
-                success = false;
-            }
+            this.make();
+            success = true;
         }
 
-        public void make() throws IOException {
-            images = new ArrayList<>();
-            loadedFiles = new ArrayList<>();
+        /**
+         * Decode the files concurrently, adding each picture in file order
+         * as soon as it and those before it are ready
+         */
+        public void make() {
+            List<CompletableFuture<LoadedImage>> loads = new ArrayList<>(imageFiles.size());
             for (File file : imageFiles) {
-                BufferedImage buffered;
+                // the codec lane bounds the files decoded at once
+                loads.add(CompletableFuture.supplyAsync(() -> this.load(file), share.codec));
+            }
+            int count = loads.size();
+            updateProgress(0L, count);
+            for (int i = 0; i < count; i++) {
+                LoadedImage loaded = loads.get(i).join();
+                if (loaded != null && !isCancelled()) {
+                    this.addPicture(loaded, shift);
+                    shift = shift + 10.0;
+                }
+                updateProgress(i + 1L, count);
+            }
+        }
+
+        private LoadedImage load(File file) {
+            try {
+                ImageItem item;
                 if (FileUtils.getExtension(file.getName()).equalsIgnoreCase("svg")) {
-                    buffered = svgRead.rasterize(file);
+                    BufferedImage buffered = svgRead.rasterize(file);
+                    if (buffered == null) {
+                        logger.warn("Couldn't read image {}", file.getName());
+                        return null;
+                    }
+                    item = new ImageItem(SwingFXUtils.toFXImage(buffered, null));
                 } else {
-                    buffered = ImageIO.read(file);
+                    // keep the original encoding to be saved unchanged
+                    item = new ImageItem();
+                    item.setData(Files.readAllBytes(file.toPath()));
                 }
-                if (buffered == null) {
-                    // a corrupt/unsupported file or a failed SVG transcode; skip it rather
-                    // than NPE in toFXImage and abort the whole batch
+                item.setFormat(FileUtils.getExtension(file));
+                double width = item.getPixelWidth();
+                double height = item.getPixelHeight();
+                if (width <= 0 || height <= 0) {
+                    // a corrupt or unsupported file; skip it rather than abort the whole batch
                     logger.warn("Couldn't read image {}", file.getName());
-                    continue;
+                    return null;
                 }
-                images.add(SwingFXUtils.toFXImage(buffered, null));
-                loadedFiles.add(file);
+                // decode the level first shown, the full resolution only for export
+                double shown = width * drawarea.fitScale(width, height) * outputScale;
+                Image image = item.getImage(item.getLevel(shown));
+                if (image == null || image.isError()) {
+                    logger.warn("Couldn't decode image {}", file.getName());
+                    return null;
+                }
+                // hash here rather than on the FX application thread
+                item.getContentHash();
+                return new LoadedImage(item, width, height);
+            } catch (IOException e) {
+                logger.warn("Couldn't read image {}: {}", file.getName(), e.getMessage());
+                return null;
             }
         }
 
+        private void addPicture(LoadedImage loaded, double offset) {
+            Platform.runLater(() -> {
+                Picture picture = pictureProvider.get();
+                picture.setStart(offset, offset);
+                int index = view.shareImageItem(loaded.item());
+                double width = loaded.width();
+                double height = loaded.height();
+                double scale = drawarea.fitScale(width, height);
+                logger.trace("Image relative scale: {}", scale);
+                picture.setImage(index, width, height);
+                picture.setScale(scale);
+                view.setNewItem(picture);
+                view.resetNewItem();
+            });
+        }
+
     }
 
 }
@@ -26,17 +26,25 @@
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Deflater;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
-import javax.imageio.ImageIO;
 import javax.inject.Inject;
 import net.perspective.draw.ApplicationController;
 import net.perspective.draw.CanvasView;
+import net.perspective.draw.DocumentSnapshot;
 import net.perspective.draw.ShareUtils;
+import net.perspective.draw.geom.DrawItem;
 import net.perspective.draw.util.CanvasPoint;
+import net.perspective.draw.util.PNGWriter;
 import net.perspective.draw.util.Messages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +62,11 @@ public class PNGWorker extends Task<Object> {
     protected File file;
     private boolean opacity;
     private double margin;
+    private RenderList renderList;
+    private DocumentSnapshot snapshot;
+    private int compressionLevel;
+    private PNGWriter.Filter filter;
+    private boolean success;
 
     private static final Logger logger = LoggerFactory.getLogger(PNGWorker.class.getName());
 
@@ -63,6 +76,9 @@ public PNGWorker(CanvasView view, ApplicationController controller) {
         this.controller = controller;
         this.opacity = true;
         this.margin = 0.0;
+        this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+        this.filter = PNGWriter.Filter.ADAPTIVE;
+        this.success = false;
     }
 
     public void setFile(File file) {
@@ -81,6 +97,63 @@ public void setMargin(double margin) {
         this.margin = margin;
     }
 
+    /**
+     * Render from a list prepared for several exports, either a render
+     * list or a snapshot must be set before the export starts
+     * 
+     * @param renderList the {@link net.perspective.draw.workers.RenderList}
+     */
+    public void setRenderList(RenderList renderList) {
+        this.renderList = renderList;
+    }
+
+    /**
+     * Export a snapshot of the drawing, taken on the FX application thread,
+     * either a snapshot or a render list must be set before the export
+     * starts
+     * 
+     * @param snapshot the {@link net.perspective.draw.DocumentSnapshot}
+     */
+    public void setSnapshot(DocumentSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Set the compression level, 0-9 or -1 for the default
+     * 
+     * @param compressionLevel the deflate level
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Set the row filter strategy
+     * 
+     * @param filter the {@link net.perspective.draw.util.PNGWriter.Filter}
+     */
+    public void setFilter(PNGWriter.Filter filter) {
+        this.filter = filter;
+    }
+
+    public PNGWriter.Filter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Export in the calling thread without reporting to the controller
+     * 
+     * @return true if the file was written, otherwise no file is left
+     */
+    public boolean export() {
+        new Serialiser();
+        return success;
+    }
+
     @Override
     protected Object call() throws Exception {
         logger.info("PNG export started...");
@@ -89,27 +162,29 @@ protected Object call() throws Exception {
 
     @Override
     public void done() {
+        if (this.isCancelled()) {
+            // superseded by a later job, which reports instead
+            return;
+        }
         logger.info("PNG export completed.");
         Platform.runLater(() -> {
             controller.getSnapshotProperty().setValue(false);
         });
-        CompletableFuture.runAsync(() -> {
-            try {
-                // introduce a minimum visible interval
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-            }
-        }, share.executor).thenRun(() -> {
-            Platform.runLater(() -> {
-                controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
-                controller.setStatusMessage(Messages.get("status.exportedPng"));
-            });
+        // introduce a minimum visible interval
+        share.scheduler.runLater(success ? 300 : 0, () -> {
+            controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
+            controller.setStatusMessage(Messages.get(success ? "status.exportedPng" : "status.exportFailed"));
         });
     }
 
     final class Serialiser {
 
         double scale = 1.375;
+        List<DrawItem> items;
+        List<Rectangle2D> extents;
+
+        static final int TILE_SIZE = 512;       // pixels
+        static final double OVERDRAW = 2.0;     // pixels antialiased beyond the painted extents
 
         Serialiser() {
             logger.info("PNG export initialised.");
@@ -117,14 +192,82 @@ final class Serialiser {
         }
 
         public void make() {
+            if (renderList == null && snapshot == null) {
+                throw new IllegalStateException("No render list or snapshot to export");
+            }
+            final RenderList list = renderList != null ? renderList
+                : RenderList.prepare(snapshot, share.render);
+
             // Calculate draw area
-            final CanvasPoint[] bounds = view.getBounds();
+            final CanvasPoint[] bounds = list.getBounds();
             CanvasPoint start = bounds[0].shifted(-margin, -margin).grow(scale).floor();
             CanvasPoint end = bounds[1].shifted(margin, margin).grow(scale);
+            int x0 = (int) Math.floor(start.x);
+            int y0 = (int) Math.floor(start.y);
+            int width = Math.max(1, (int) Math.ceil(end.x - start.x));
+            int height = Math.max(1, (int) Math.ceil(end.y - start.y));
+
+            // items in paint order with their extents
+            items = list.getItems();
+            extents = list.getExtents();
 
-            // render canvas
-            BufferedImage img = new BufferedImage((int) Math.ceil(end.x), (int) Math.ceil(end.y), BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2 = img.createGraphics();
+            // render bands of tiles in parallel, the next band while writing the last
+            int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+            int bands = (height + TILE_SIZE - 1) / TILE_SIZE;
+            try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(file))) {
+                PNGWriter png = new PNGWriter(bos, width, height, isOpacity(),
+                    compressionLevel, filter, share.render);
+                int[] row = new int[width];
+                List<CompletableFuture<BufferedImage>> band = this.renderBand(x0, y0, width, height, 0, columns);
+                for (int b = 0; b < bands; b++) {
+                    List<BufferedImage> tiles = new ArrayList<>(columns);
+                    for (CompletableFuture<BufferedImage> tile : band) {
+                        tiles.add(tile.join());
+                    }
+                    if (b + 1 < bands) {
+                        band = this.renderBand(x0, y0, width, height, b + 1, columns);
+                    }
+                    for (int r = 0; r < tiles.get(0).getHeight(); r++) {
+                        for (int c = 0; c < columns; c++) {
+                            BufferedImage tile = tiles.get(c);
+                            int[] data = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+                            System.arraycopy(data, r * tile.getWidth(), row, c * TILE_SIZE, tile.getWidth());
+                        }
+                        png.writeRows(row, 0, width, 1);
+                    }
+                    updateProgress(b + 1L, bands);
+                }
+                png.finish();
+                success = true;
+            } catch (CompletionException | IllegalStateException e) {
+                logger.warn("Failed to write PNG.");
+            } catch (IOException e) {
+                logger.warn(e.getMessage());
+            }
+            if (!success) {
+                // no partial image is left in place
+                file.delete();
+            }
+        }
+
+        private List<CompletableFuture<BufferedImage>> renderBand(int x0, int y0, int width, int height, int band, int columns) {
+            List<CompletableFuture<BufferedImage>> tiles = new ArrayList<>(columns);
+            int y = band * TILE_SIZE;
+            int h = Math.min(TILE_SIZE, height - y);
+            for (int c = 0; c < columns; c++) {
+                int x = c * TILE_SIZE;
+                int w = Math.min(TILE_SIZE, width - x);
+                tiles.add(CompletableFuture.supplyAsync(() -> this.renderTile(x0 + x, y0 + y, w, h), share.render));
+            }
+            return tiles;
+        }
+
+        /**
+         * Render the items that intersect a tile, given in scaled pixels
+         */
+        private BufferedImage renderTile(int x, int y, int w, int h) {
+            BufferedImage tile = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = tile.createGraphics();
             g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
@@ -133,29 +276,20 @@ public void make() {
             if (isOpacity()) {
                 // fill background
                 g2.setPaint(Color.WHITE);
-                g2.fillRect(0, 0, img.getWidth(), img.getHeight());
+                g2.fillRect(0, 0, w, h);
             }
-            // grow and translate
-            g2.transform(java.awt.geom.AffineTransform.getTranslateInstance(0, 0));
+            // translate to the tile and grow
+            g2.transform(java.awt.geom.AffineTransform.getTranslateInstance(-x, -y));
             g2.transform(java.awt.geom.AffineTransform.getScaleInstance(scale, scale));
-            // Render image
-            view.getDrawings().stream().forEach((item) -> {
-                item.draw(g2);
-            });
-            g2.dispose();
-
-            // crop image
-            int width = (int) Math.ceil(end.x - start.x);
-            int height = (int) Math.ceil(end.y - start.y);
-            BufferedImage image = img.getSubimage((int) Math.floor(start.x), (int) Math.floor(start.y), width, height);
-
-            try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(file))) {
-                ImageIO.write(image, "png", bos);
-            } catch (IllegalArgumentException e) {
-                logger.warn("Failed to write PNG.");
-            } catch (IOException e) {
-                logger.warn(e.getMessage());
+            Rectangle2D region = new Rectangle2D.Double((x - OVERDRAW) / scale, (y - OVERDRAW) / scale,
+                (w + 2 * OVERDRAW) / scale, (h + 2 * OVERDRAW) / scale);
+            for (int i = 0; i < items.size(); i++) {
+                if (extents.get(i).intersects(region)) {
+                    items.get(i).draw(g2);
+                }
             }
+            g2.dispose();
+            return tile;
         }
     }
 
@@ -27,15 +27,14 @@
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
-import javafx.scene.image.Image;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import net.perspective.draw.ApplicationController;
@@ -50,6 +49,7 @@
 import net.perspective.draw.geom.Grouped;
 import net.perspective.draw.geom.Picture;
 import net.perspective.draw.geom.StreetMap;
+import net.perspective.draw.serialise.BinaryCanvasReader;
 import net.perspective.draw.util.FileUtils;
 import net.perspective.draw.util.Messages;
 import org.apache.commons.beanutils.BeanUtils;
@@ -74,6 +74,7 @@ public class ReadInFunnel extends Task<Object> {
     private List<DrawItem> drawings;
     private List<ImageItem> pictures;
     private boolean success;
+    private boolean binary;
 
     private static final Logger logger = LoggerFactory.getLogger(ReadInFunnel.class.getName());
 
@@ -89,6 +90,40 @@ public void setFile(File file) {
         this.file = file;
     }
 
+    /**
+     * Read the file in the calling thread without updating the view
+     * 
+     * <p>Map views are not initialised, a map is drawn from its stored image
+     * 
+     * @return true if the file was read
+     */
+    public boolean read() {
+        success = false;
+        new Deserialiser();
+        if (success && !binary) {
+            drawings.replaceAll(this::checkDrawings);
+        }
+        return success;
+    }
+
+    /**
+     * Get the items read
+     * 
+     * @return list of {@link net.perspective.draw.geom.DrawItem}
+     */
+    public List<DrawItem> getDrawings() {
+        return drawings;
+    }
+
+    /**
+     * Get the images read, in saved order
+     * 
+     * @return list of {@link net.perspective.draw.ImageItem}
+     */
+    public List<ImageItem> getImageItems() {
+        return pictures;
+    }
+
     @Override
     protected Object call() throws Exception {
         success = false;
@@ -98,6 +133,10 @@ protected Object call() throws Exception {
 
     @Override
     public void done() {
+        if (this.isCancelled()) {
+            // superseded by a later job, which reports instead
+            return;
+        }
         logger.info("Open completed.");
         Platform.runLater(() -> {
             if (success) {
@@ -105,30 +144,22 @@ public void done() {
                 // Rebuild the image list in saved order so each item's imageIndex
                 // resolves to the correct bitmap. Must run after prepareDrawing(),
                 // which clears the image list via clearView().
-                view.getImageItems().addAll(pictures);
+                pictures.forEach(view::addImageItem);
+                List<DrawItem> items = new ArrayList<>(drawings.size());
                 for (var drawitem : drawings) {
-                    var item = checkDrawings(drawitem);
-                    view.setNewItem(item);
-                    view.resetNewItem();
+                    items.add(initMaps(binary ? drawitem : checkDrawings(drawitem)));
                 }
+                // one change indexes the items together
+                view.appendItemsToCanvas(items);
             }
         });
-        CompletableFuture.runAsync(() -> {
-            try {
-                // introduce a minimum visible interval
-                if (success) {
-                    Thread.sleep(300);
-                }
-            } catch (InterruptedException e) {
+        // introduce a minimum visible interval
+        share.scheduler.runLater(success ? 300 : 0, () -> {
+            controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
+            controller.getProgressProperty().unbind();
+            if (success) {
+                controller.setStatusMessage(Messages.get("status.openedDocument"));
             }
-        }, share.executor).thenRun(() -> {
-            Platform.runLater(() -> {
-                controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
-                controller.getProgressProperty().unbind();
-                if (success) {
-                    controller.setStatusMessage(Messages.get("status.openedDocument"));
-                }
-            });
         });
     }
 
@@ -189,8 +220,6 @@ private DrawItem checkDrawings(DrawItem drawing) {
             StreetMap item = streetMapProvider.get();
             try {
                 BeanUtils.copyProperties(item, streetmap);
-                item.init();
-                item.filterHandlers();
                 drawing = item;
             } catch (IllegalAccessException | InvocationTargetException ex) {
                 logger.trace(ex.getMessage());
@@ -212,6 +241,19 @@ private DrawItem checkDrawings(DrawItem drawing) {
         return drawing;
     }
 
+    /**
+     * Initialise the map views of items, on the FX application thread
+     */
+    private DrawItem initMaps(DrawItem drawing) {
+        if (drawing instanceof StreetMap streetmap) {
+            streetmap.init();
+            streetmap.filterHandlers();
+        } else if (drawing instanceof Grouped grouped) {
+            grouped.getDrawItems().forEach(this::initMaps);
+        }
+        return drawing;
+    }
+
     final class Deserialiser {
 
         XMLDecoder decoder;
@@ -221,7 +263,7 @@ final class Deserialiser {
             try {
                 success = true;
                 this.make();
-            } catch (IOException | IllegalStateException | NullPointerException e) {
+            } catch (IOException | IllegalArgumentException | IllegalStateException | NullPointerException e) {
                 logger.warn(e.getMessage());
                 success = false;
             }
@@ -229,7 +271,7 @@ final class Deserialiser {
 
         public void make() throws IOException {
             try (ZipFile zf = new ZipFile(file)) {
-                updateProgress(0L, 3L);
+                updateProgress(0L, 1L);
 
                 ZipEntry ze = zf.getEntry("content/pictures.xml");
                 decoder = new XMLDecoder(new BufferedInputStream(zf.getInputStream(ze)));
@@ -251,43 +293,62 @@ public void make() throws IOException {
                         "Unexpected object type from XMLDecoder: " + obj.getClass().getName()
                     );
                 }
-                updateProgress(1L, 3L);
+                long total = pictures.size() + 2L;  // progress by image
+                updateProgress(1L, total);
 
                 int index = 0;
                 for (ImageItem picture : pictures) {
                     ze = zf.getEntry("images/" + FileUtils.getImageName(index));
-                    try {
-                        Image img = new Image(new BufferedInputStream(zf.getInputStream(ze)));
-                        picture.setImage(img);
+                    try (InputStream in = zf.getInputStream(ze)) {
+                        // the image is decoded when first drawn
+                        byte[] data = in.readAllBytes();
+                        if (data.length > 0) {
+                            picture.setData(data);
+                            // hash here rather than on the FX application thread
+                            picture.getContentHash();
+                        } else {
+                            // a blank image has an empty entry
+                            logger.info("Image file blank.");
+                        }
                     } catch (IOException e) {
                         logger.warn("Can't read image file.");
                     }
                     index++;
+                    updateProgress(index + 1L, total);
                 }
-                updateProgress(2L, 3L);
 
-                ze = zf.getEntry("content/canvas.xml");
-                decoder = new XMLDecoder(new BufferedInputStream(zf.getInputStream(ze)));
-                decoder.setExceptionListener((Exception ex) -> {
-                    logger.warn(ex.getMessage());
-                    // success = false;
-                });
-                obj = decoder.readObject();
+                ze = zf.getEntry("content/canvas.bin");
+                binary = ze != null;
+                if (binary) {
+                    try (var in = new BufferedInputStream(zf.getInputStream(ze))) {
+                        BinaryCanvasReader reader = new BinaryCanvasReader(in,
+                            pictureProvider::get, streetMapProvider::get);
+                        drawings = reader.read();
+                    }
+                } else {
+                    ze = zf.getEntry("content/canvas.xml");
+                    decoder = new XMLDecoder(new BufferedInputStream(zf.getInputStream(ze)));
+                    decoder.setExceptionListener((Exception ex) -> {
+                        logger.warn(ex.getMessage());
+                        // success = false;
+                    });
+                    obj = decoder.readObject();
 
-                if (obj == null) {
-                    throw new IllegalStateException("XMLDecoder returned null object");
-                }
+                    if (obj == null) {
+                        throw new IllegalStateException("XMLDecoder returned null object");
+                    }
 
-                if (obj instanceof List<?>) {
-                    @SuppressWarnings("unchecked")
-                    List<DrawItem> list = (List<DrawItem>) obj;
-                    drawings = new ArrayList<>(list);
-                } else {
-                    throw new IllegalStateException(
-                        "Unexpected object type from XMLDecoder: " + obj.getClass().getName()
-                    );
+                    if (obj instanceof List<?>) {
+                        @SuppressWarnings("unchecked")
+                        List<DrawItem> list = (List<DrawItem>) obj;
+                        drawings = new ArrayList<>(list);
+                    } else {
+                        throw new IllegalStateException(
+                            "Unexpected object type from XMLDecoder: " + obj.getClass().getName()
+                        );
+                    }
                 }
-                updateProgress(3L, 3L);
+                updateProgress(total, total);
             }
         }
     }
@@ -0,0 +1,147 @@
+/*
+ * RenderList.java
+ *
+ * Created on Oct 17, 2026 6:48:05 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.workers;
+
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import net.perspective.draw.DocumentSnapshot;
+import net.perspective.draw.ImageItem;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Grouped;
+import net.perspective.draw.geom.Picture;
+import net.perspective.draw.util.CanvasPoint;
+
+/**
+ * The items of a drawing prepared once for export
+ *
+ * <p>Holds the items in paint order with their painted extents and the drawing
+ * bounds, and keeps the AWT conversion of every image drawn, including
+ * map images, so that several exports may render from it concurrently.
+ *
+ * @author ctipper
+ */
+
+public class RenderList {
+
+    private final List<DrawItem> items;
+    private final List<Rectangle2D> extents;
+    private final CanvasPoint[] bounds;
+    private final List<BufferedImage> images;
+
+    private RenderList(List<DrawItem> items, List<Rectangle2D> extents, CanvasPoint[] bounds,
+            List<BufferedImage> images) {
+        this.items = items;
+        this.extents = Collections.unmodifiableList(extents);
+        this.bounds = bounds;
+        this.images = images;
+    }
+
+    /**
+     * Prepare the items of a snapshot
+     *
+     * @param snapshot the {@link net.perspective.draw.DocumentSnapshot}
+     * @param executor converts the images concurrently
+     * @return the prepared list
+     */
+    public static RenderList prepare(DocumentSnapshot snapshot, Executor executor) {
+        List<DrawItem> items = snapshot.getDrawings();
+        CanvasPoint[] bounds = snapshot.getBounds();
+        List<ImageItem> table = snapshot.getImageItems();
+
+        // painted extents include strokes and arrows, and prepare the item paths
+        List<Rectangle2D> extents = new ArrayList<>(items.size());
+        Set<Integer> indices = new TreeSet<>();
+        for (DrawItem item : items) {
+            extents.add(item.paintBounds());
+            collectImages(item, indices);
+        }
+
+        List<CompletableFuture<BufferedImage>> conversions = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            if (index >= 0 && index < table.size()) {
+                ImageItem image = table.get(index);
+                conversions.add(CompletableFuture.supplyAsync(image::getBufferedImage, executor));
+            }
+        }
+        List<BufferedImage> images = new ArrayList<>(conversions.size());
+        for (CompletableFuture<BufferedImage> conversion : conversions) {
+            images.add(conversion.join());
+        }
+        return new RenderList(items, extents, bounds, images);
+    }
+
+    private static void collectImages(DrawItem item, Set<Integer> indices) {
+        if (item instanceof Picture picture) {
+            indices.add(picture.getImageIndex());
+        } else if (item instanceof Grouped grouped) {
+            for (DrawItem shape : grouped.getDrawItems()) {
+                collectImages(shape, indices);
+            }
+        }
+    }
+
+    /**
+     * Get the items in paint order
+     *
+     * @return list of {@link net.perspective.draw.geom.DrawItem}
+     */
+    public List<DrawItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Get the extent of each item
+     *
+     * @return list of {@link java.awt.geom.Rectangle2D}
+     */
+    public List<Rectangle2D> getExtents() {
+        return extents;
+    }
+
+    /**
+     * Get the drawing bounds
+     *
+     * @return bounding {@link net.perspective.draw.util.CanvasPoint}
+     */
+    public CanvasPoint[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Get the number of images held for the export
+     *
+     * @return the image count
+     */
+    public int getImageCount() {
+        return images.size();
+    }
+
+}
@@ -25,7 +25,6 @@
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.concurrent.CompletableFuture;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.embed.swing.SwingFXUtils;
@@ -97,7 +96,7 @@ public void done() {
                 picture.setStart(shift, shift);
                 ImageItem item = new ImageItem(image);
                 item.setFormat("svg");
-                int index = view.setImageItem(item);
+                int index = view.shareImageItem(item);
                 double width = (double) image.getWidth();
                 double height = (double) image.getHeight();
                 double scale = drawarea.fitScale(width, height);
@@ -108,22 +107,13 @@ public void done() {
                 view.resetNewItem();
             }
         });
-        CompletableFuture.runAsync(() -> {
-            try {
-                // introduce a minimum visible interval
-                if (success) {
-                    Thread.sleep(300);
-                }
-            } catch (InterruptedException e) {
+        // introduce a minimum visible interval
+        share.scheduler.runLater(success ? 300 : 0, () -> {
+            controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
+            controller.getProgressProperty().unbind();
+            if (success) {
+                controller.setStatusMessage(Messages.get("status.readPictures"));
             }
-        }, share.executor).thenRun(() -> {
-            Platform.runLater(() -> {
-                controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
-                controller.getProgressProperty().unbind();
-                if (success) {
-                    controller.setStatusMessage(Messages.get("status.readPictures"));
-                }
-            });
         });
     }
 
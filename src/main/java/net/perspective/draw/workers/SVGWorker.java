@@ -24,14 +24,13 @@
 package net.perspective.draw.workers;
 
 import java.io.*;
-import java.util.concurrent.CompletableFuture;
-import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javax.inject.Inject;
 import org.jfree.svg.SVGGraphics2D;
 import org.jfree.svg.SVGHints;
 import net.perspective.draw.ApplicationController;
 import net.perspective.draw.CanvasView;
+import net.perspective.draw.DocumentSnapshot;
 import net.perspective.draw.ShareUtils;
 import net.perspective.draw.util.CanvasPoint;
 import net.perspective.draw.util.Messages;
@@ -50,6 +49,9 @@ public class SVGWorker extends Task<Object> {
     @Inject ShareUtils share;
     private File file;
     private double margin;
+    private RenderList renderList;
+    private DocumentSnapshot snapshot;
+    private boolean success;
 
     private static final Logger logger = LoggerFactory.getLogger(SVGWorker.class.getName());
 
@@ -58,6 +60,7 @@ public SVGWorker(CanvasView view, ApplicationController controller) {
         this.view = view;
         this.controller = controller;
         this.margin = 0.0;
+        this.success = false;
     }
 
     public void setFile(File file) {
@@ -68,6 +71,37 @@ public void setMargin(double margin) {
         this.margin = margin;
     }
 
+    /**
+     * Render from a list prepared for several exports, either a render
+     * list or a snapshot must be set before the export starts
+     * 
+     * @param renderList the {@link net.perspective.draw.workers.RenderList}
+     */
+    public void setRenderList(RenderList renderList) {
+        this.renderList = renderList;
+    }
+
+    /**
+     * Export a snapshot of the drawing, taken on the FX application thread,
+     * either a snapshot or a render list must be set before the export
+     * starts
+     * 
+     * @param snapshot the {@link net.perspective.draw.DocumentSnapshot}
+     */
+    public void setSnapshot(DocumentSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Export in the calling thread without reporting to the controller
+     * 
+     * @return true if the file was written, otherwise no file is left
+     */
+    public boolean export() {
+        new Serialiser();
+        return success;
+    }
+
     @Override
     protected Object call() throws Exception {
         logger.info("SVG export started...");
@@ -76,18 +110,15 @@ protected Object call() throws Exception {
 
     @Override
     public void done() {
+        if (this.isCancelled()) {
+            // superseded by a later job, which reports instead
+            return;
+        }
         logger.info("SVG export completed.");
-        CompletableFuture.runAsync(() -> {
-            try {
-                // introduce a minimum visible interval
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-            }
-        }, share.executor).thenRun(() -> {
-            Platform.runLater(() -> {
-                controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
-                controller.setStatusMessage(Messages.get("status.exportedSvg"));
-            });
+        // introduce a minimum visible interval
+        share.scheduler.runLater(success ? 300 : 0, () -> {
+            controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
+            controller.setStatusMessage(Messages.get(success ? "status.exportedSvg" : "status.exportFailed"));
         });
     }
 
@@ -99,8 +130,14 @@ final class Serialiser {
         }
 
         public void make() {
+            if (renderList == null && snapshot == null) {
+                throw new IllegalStateException("No render list or snapshot to export");
+            }
+            final RenderList list = renderList != null ? renderList
+                : RenderList.prepare(snapshot, share.render);
+
             // Calculate drawing bounds
-            final CanvasPoint[] bounds = view.getBounds();
+            final CanvasPoint[] bounds = list.getBounds();
             CanvasPoint start = bounds[0].shifted(-margin, -margin).floor();
             CanvasPoint end = bounds[1].shifted(margin, margin);
 
@@ -120,7 +157,7 @@ public void make() {
             g2.translate(-start.x, -start.y);
 
             // Ask to render into the SVG Graphics2D implementation.
-            view.getDrawings().stream().forEach((item) -> {
+            list.getItems().stream().forEach((item) -> {
                 item.draw(g2);
             });
 
@@ -145,9 +182,14 @@ public void make() {
             // Write to file
             try (Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
                 out.write(svgElement);
+                success = true;
             } catch (IOException e) {
                 logger.warn("Error writing SVG file: {}", e.getMessage());
             }
+            if (!success) {
+                // no partial document is left in place
+                file.delete();
+            }
 
             // Clean up
             g2.dispose();
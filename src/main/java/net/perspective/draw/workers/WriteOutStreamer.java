@@ -25,8 +25,12 @@
 
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.imageio.ImageIO;
@@ -35,9 +39,10 @@
 import org.slf4j.LoggerFactory;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
-import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
 import net.perspective.draw.ApplicationController;
 import net.perspective.draw.CanvasView;
+import net.perspective.draw.DocumentSnapshot;
 import net.perspective.draw.ImageItem;
 import net.perspective.draw.ShareUtils;
 import net.perspective.draw.geom.DrawItem;
@@ -63,6 +68,8 @@ public class WriteOutStreamer extends Task<Object> {
     private final ApplicationController controller;
     @Inject ShareUtils share;
     private File file;
+    private boolean legacy;
+    private DocumentSnapshot snapshot;
 
     private static final Logger logger = LoggerFactory.getLogger(WriteOutStreamer.class.getName());
 
@@ -76,6 +83,25 @@ public void setFile(File file) {
         this.file = file;
     }
 
+    /**
+     * Save a snapshot of the drawing, taken on the FX application thread,
+     * which must be set before the save starts
+     * 
+     * @param snapshot the {@link net.perspective.draw.DocumentSnapshot}
+     */
+    public void setSnapshot(DocumentSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Write the drawings as XML, readable by earlier versions
+     * 
+     * @param legacy write content/canvas.xml rather than content/canvas.bin
+     */
+    public void setLegacyFormat(boolean legacy) {
+        this.legacy = legacy;
+    }
+
     @Override
     protected Object call() throws Exception {
         logger.info("Save started...");
@@ -84,19 +110,16 @@ protected Object call() throws Exception {
 
     @Override
     public void done() {
+        if (this.isCancelled()) {
+            // superseded by a later job, which reports instead
+            return;
+        }
         logger.info("Save completed.");
-        CompletableFuture.runAsync(() -> {
-            try {
-                // introduce a minimum visible interval
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-            }
-        }, share.executor).thenRun(() -> {
-            Platform.runLater(() -> {
-                controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
-                controller.getProgressProperty().unbind();
-                controller.setStatusMessage(Messages.get("status.savedDocument"));
-            });
+        // introduce a minimum visible interval
+        share.scheduler.runLater(300, () -> {
+            controller.getProgressVisibleProperty().setValue(Boolean.FALSE);
+            controller.getProgressProperty().unbind();
+            controller.setStatusMessage(Messages.get("status.savedDocument"));
         });
     }
 
@@ -123,9 +146,44 @@ final class Serialiser {
         }
 
         public void make() throws IOException {
+            if (snapshot == null) {
+                // fail before the file is truncated
+                throw new IllegalStateException("No snapshot to save");
+            }
             FileOutputStream fos = new FileOutputStream(file);
             zos = new ZipOutputStream(new BufferedOutputStream(fos));
-            updateProgress(0L, 3L);
+            // images that no picture draws are not written
+            final DocumentSnapshot document = snapshot.compact();
+            List<ImageItem> pictures = new ArrayList<>(document.getImageItems());
+            int count = pictures.size();
+            long total = count + 2L;    // progress by image
+            updateProgress(0L, total);
+
+            /**
+             * encode images concurrently, the descriptor records the format
+             * of the re-encoded images so it is written once they complete
+             */
+            List<Future<byte[]>> encoded = new ArrayList<>(count);
+            List<Image> sources = new ArrayList<>(count);
+            for (ImageItem item : pictures) {
+                byte[] data = item.getData();
+                sources.add(data == null ? item.getImage() : null);
+                encoded.add(data != null ? CompletableFuture.completedFuture(data)
+                    : share.render.submit(() -> encode(item)));
+            }
+            List<byte[]> images = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                byte[] data = await(encoded.get(index));
+                images.add(data);
+                Image source = sources.get(index);
+                if (data != null && source != null) {
+                    // the items are shared with the canvas, so the descriptor
+                    // is written from a copy and the item updated on the FX thread
+                    ImageItem item = pictures.get(index);
+                    pictures.set(index, reencoded(item));
+                    Platform.runLater(() -> keep(item, source, data));
+                }
+            }
 
             /**
              * Create pictures descriptor
@@ -133,38 +191,109 @@ public void make() throws IOException {
             ZipEntry entry = new ZipEntry("content/pictures.xml");
             zos.putNextEntry(entry);
 
-            List<ImageItem> pictures = view.getImageItems();
             encoder = new net.perspective.draw.serialise.XMLEncoder(zos);
             encoder.setPersistenceDelegate(java.time.Instant.class,
                 new InstantPersistenceDelegate());
             encoder.writeObject(pictures);
             encoder.finished();
             zos.closeEntry();
-            updateProgress(1L, 3L);
+            updateProgress(1L, total);
 
             /**
-             * write out images
+             * write out images in order
              */
-            for (int index = 0; index < pictures.size(); index++) {
-                BufferedImage img = SwingFXUtils.fromFXImage(pictures.get(index).getImage(), null); // retrieve image
-                entry = new ZipEntry("images/" + FileUtils.getImageName(index));
-                zos.putNextEntry(entry);
-                try {
-                    ImageIO.write(img, "png", zos);
-                } catch (IllegalArgumentException e) {
-                    logger.info("Image file blank.");
-                }
-                zos.closeEntry();
+            for (int index = 0; index < count; index++) {
+                byte[] data = images.get(index);
+                // a blank image is kept as an empty entry, skipped on load
+                writeStored("images/" + FileUtils.getImageName(index), data == null ? new byte[0] : data);
+                updateProgress(index + 2L, total);
             }
-            updateProgress(2L, 3L);
 
             /**
              * write out drawings
              */
-            entry = new ZipEntry("content/canvas.xml");
+            if (legacy) {
+                this.writeLegacy(new ArrayList<>(document.getDrawings()));
+            } else {
+                // the snapshot holds the items in the binary canvas encoding
+                entry = new ZipEntry("content/canvas.bin");
+                zos.putNextEntry(entry);
+                zos.write(document.getCanvas());
+                zos.closeEntry();
+            }
+            updateProgress(total, total);
+        }
+
+        private byte[] await(Future<byte[]> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Save interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ex) {
+                    throw ex;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+
+        /**
+         * Encode an image that has no original encoding as PNG
+         */
+        private byte[] encode(ImageItem item) throws IOException {
+            BufferedImage img = item.getBufferedImage();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(img, "png", bos);
+            } catch (IllegalArgumentException e) {
+                logger.info("Image file blank.");
+                return null;
+            }
+            return bos.toByteArray();
+        }
+
+        /**
+         * Describe a re-encoded image without changing the shared item
+         */
+        private ImageItem reencoded(ImageItem item) {
+            ImageItem copy = new ImageItem(item.getTimestamp());
+            copy.setFormat("png");
+            copy.setReferenceCount(item.getReferenceCount());
+            return copy;
+        }
+
+        /**
+         * Keep the encoding, with its format, so that later saves copy it,
+         * unless the image has since been replaced
+         */
+        private void keep(ImageItem item, Image source, byte[] data) {
+            if (item.getData() == null && item.getImage() == source) {
+                item.setFormat("png");
+                item.setData(data);
+            }
+        }
+
+        /**
+         * Images are already compressed so they are stored rather than deflated
+         */
+        private void writeStored(String name, byte[] data) throws IOException {
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            ZipEntry entry = new ZipEntry(name);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            entry.setCrc(crc.getValue());
+            zos.putNextEntry(entry);
+            zos.write(data);
+            zos.closeEntry();
+        }
+
+        private void writeLegacy(List<DrawItem> drawings) throws IOException {
+            ZipEntry entry = new ZipEntry("content/canvas.xml");
             zos.putNextEntry(entry);
 
-            List<DrawItem> drawings = view.getDrawings();
             encoder = new net.perspective.draw.serialise.XMLEncoder(zos);
             encoder.setPersistenceDelegate(java.awt.BasicStroke.class,
                 new BasicStrokePersistenceDelegate());
@@ -187,7 +316,6 @@ public void make() throws IOException {
             encoder.writeObject(drawings);
             encoder.finished();
             zos.closeEntry();
-            updateProgress(3L, 3L);
         }
     }
 
@@ -0,0 +1,176 @@
+/*
+ * DocumentSnapshotTest.java
+ *
+ * Created on Oct 18, 2026 1:12:48 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.perspective.draw.enums.DrawingType;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Edge;
+import net.perspective.draw.geom.Figure;
+import net.perspective.draw.geom.FigureType;
+import net.perspective.draw.geom.Grouped;
+import net.perspective.draw.geom.Picture;
+import net.perspective.draw.geom.StreetMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * DocumentSnapshotTest
+ *
+ * @author ctipper
+ */
+
+public class DocumentSnapshotTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentSnapshotTest.class.getName());
+
+    @BeforeEach
+    public void setUp() {
+        logger.info("* DocumentSnapshotTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.info("* DocumentSnapshotTest: tearDown() method");
+    }
+
+    private static Figure square(double x, double y, double side) {
+        Figure item = new Figure(FigureType.SQUARE);
+        item.setStart(x, y);
+        item.setEnd(x + side, y + side);
+        item.setPoints(DrawingType.SQUARE);
+        item.setEndPoints();
+        item.setPath();
+        return item;
+    }
+
+    private static Edge sketch(double x, double y, int points) {
+        Edge item = new Edge(FigureType.SKETCH);
+        item.setPoints(DrawingType.SKETCH);
+        for (int i = 0; i < points; i++) {
+            item.addPoint(x + i * 1.5, y + 20 * Math.sin(i / 10.0));
+        }
+        item.setEndPoints();
+        item.setPath();
+        return item;
+    }
+
+    private static Picture picture(int index) {
+        Picture item = new Picture();
+        item.setImage(index, 320, 200);
+        item.setStart(10, 10);
+        item.setEnd(330, 210);
+        return item;
+    }
+
+    private static ImageItem encoded(byte... data) {
+        ImageItem item = new ImageItem();
+        item.setFormat("png");
+        item.setData(data);
+        return item;
+    }
+
+    private static int indexOf(DrawItem item) {
+        return ((Picture) item).getImageIndex();
+    }
+
+    private static DocumentSnapshot snapshot(List<DrawItem> drawings, List<ImageItem> images) {
+        return new DocumentSnapshot(drawings, images, Picture::new, StreetMap::new);
+    }
+
+    @Test
+    @DisplayName("Test images with the same content are merged")
+    public void mergeTest() {
+        ImageItem first = encoded((byte) 1, (byte) 2, (byte) 3);
+        ImageItem other = encoded((byte) 4, (byte) 5, (byte) 6);
+        List<ImageItem> images = List.of(first, other, encoded((byte) 1, (byte) 2, (byte) 3));
+        Grouped group = new Grouped();
+        group.addDrawItem(picture(2));
+        group.addDrawItem(square(0, 0, 20));
+        List<DrawItem> drawings = List.of(picture(0), picture(1), picture(2), group);
+        DocumentSnapshot compacted = snapshot(drawings, images).compact();
+        assertEquals(2, compacted.getImageItems().size());
+        assertSame(first, compacted.getImageItems().get(0));
+        assertSame(other, compacted.getImageItems().get(1));
+        List<DrawItem> copies = compacted.getDrawings();
+        assertEquals(0, indexOf(copies.get(0)));
+        assertEquals(1, indexOf(copies.get(1)));
+        assertEquals(0, indexOf(copies.get(2)));
+        assertEquals(0, indexOf(((Grouped) copies.get(3)).getDrawItems().get(0)));
+    }
+
+    @Test
+    @DisplayName("Test undrawn images are dropped and others renumbered")
+    public void dropTest() {
+        ImageItem drawn = encoded((byte) 4, (byte) 5, (byte) 6);
+        List<ImageItem> images = List.of(encoded((byte) 1), new ImageItem(), drawn);
+        DocumentSnapshot compacted = snapshot(List.of(picture(2), square(0, 0, 20)), images).compact();
+        assertEquals(List.of(drawn), compacted.getImageItems());
+        assertEquals(0, indexOf(compacted.getDrawings().get(0)));
+    }
+
+    @Test
+    @DisplayName("Test a snapshot of distinct drawn images is unchanged")
+    public void unchangedTest() {
+        List<ImageItem> images = List.of(encoded((byte) 1), encoded((byte) 2));
+        DocumentSnapshot snapshot = snapshot(List.of(picture(1), picture(0)), images);
+        assertSame(snapshot, snapshot.compact());
+    }
+
+    @Test
+    @DisplayName("Test a snapshot is unaffected by later edits")
+    public void isolationTest() {
+        Figure square = square(10, 20, 30);
+        Edge sketch = sketch(0, 100, 50);
+        ImageItem image = encoded((byte) 1, (byte) 2, (byte) 3);
+        List<DrawItem> drawings = new ArrayList<>(List.of(square, sketch, picture(0)));
+        List<ImageItem> images = new ArrayList<>(List.of(image));
+        DocumentSnapshot snapshot = snapshot(drawings, images);
+
+        // edit the live items and tables
+        square.moveTo(300, 400);
+        sketch.addPoint(500, 500);
+        sketch.setPath();
+        drawings.remove(2);
+        drawings.add(square(0, 0, 5));
+        images.set(0, encoded((byte) 4));
+
+        List<DrawItem> copies = snapshot.getDrawings();
+        assertEquals(3, copies.size());
+        assertEquals(10.0, copies.get(0).getStart().x);
+        assertEquals(20.0, copies.get(0).getStart().y);
+        assertEquals(50, ((Edge) copies.get(1)).getPoints().size());
+        assertEquals(0, indexOf(copies.get(2)));
+        assertEquals(List.of(image), snapshot.getImageItems());
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * ImageItemTest.java
+ *
+ * Created on Oct 18, 2026 5:21:46 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javafx.application.Platform;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.WritableImage;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * ImageItemTest
+ *
+ * @author ctipper
+ */
+
+public class ImageItemTest {
+
+    static boolean toolkit;
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageItemTest.class.getName());
+
+    @BeforeAll
+    public static void setUpClass() {
+        // images with pixels need the FX toolkit
+        try {
+            Platform.startup(() -> {});
+            toolkit = true;
+        } catch (IllegalStateException e) {
+            toolkit = true;
+        } catch (RuntimeException e) {
+            logger.warn("FX toolkit unavailable: {}", e.getMessage());
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        logger.info("* ImageItemTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.info("* ImageItemTest: tearDown() method");
+    }
+
+    private static ImageItem encoded(byte... data) {
+        ImageItem item = new ImageItem();
+        item.setFormat("png");
+        item.setData(data);
+        return item;
+    }
+
+    private static WritableImage image(int width, int height) {
+        WritableImage image = new WritableImage(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.getPixelWriter().setArgb(x, y, 0xFF000000 | (x * 31) << 16 | (y * 17) << 8 | (x ^ y));
+            }
+        }
+        return image;
+    }
+
+    private static byte[] png(WritableImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Test images with the same encoding are the same")
+    public void sameTest() {
+        ImageItem item = encoded((byte) 1, (byte) 2, (byte) 3);
+        assertTrue(item.isSameImage(item));
+        assertTrue(item.isSameImage(encoded((byte) 1, (byte) 2, (byte) 3)));
+        assertTrue(encoded((byte) 1, (byte) 2, (byte) 3).isSameImage(item));
+        assertEquals(item.getContentHash(), encoded((byte) 1, (byte) 2, (byte) 3).getContentHash());
+        assertFalse(item.isSameImage(encoded((byte) 1, (byte) 2, (byte) 4)));
+        assertFalse(item.isSameImage(encoded((byte) 1, (byte) 2)));
+    }
+
+    @Test
+    @DisplayName("Test empty images are never the same")
+    public void emptyTest() {
+        ImageItem empty = new ImageItem();
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.isSameImage(new ImageItem()));
+        assertFalse(empty.isSameImage(encoded((byte) 1)));
+        assertFalse(encoded((byte) 1).isSameImage(empty));
+    }
+
+    @Test
+    @DisplayName("Test a new encoding is a new digest")
+    public void encodingTest() {
+        ImageItem item = encoded((byte) 1, (byte) 2, (byte) 3);
+        String hash = item.getContentHash();
+        item.setData(new byte[] { 4, 5, 6 });
+        assertNotEquals(hash, item.getContentHash());
+        assertTrue(item.isSameImage(encoded((byte) 4, (byte) 5, (byte) 6)));
+    }
+
+    @Test
+    @DisplayName("Test the digest of an image is kept once encoded")
+    public void stableTest() throws IOException {
+        assumeTrue(toolkit, "no FX toolkit");
+        WritableImage image = image(24, 16);
+        ImageItem item = new ImageItem(image);
+        ImageItem copy = new ImageItem(image(24, 16));
+        String hash = item.getContentHash();
+        assertTrue(item.isSameImage(copy));
+        assertFalse(item.isSameImage(new ImageItem(image(16, 24))));
+        // encoded when saved, then released
+        item.setData(png(image));
+        assertEquals(hash, item.getContentHash());
+        item.release();
+        assertEquals(hash, item.getContentHash());
+        assertTrue(item.isSameImage(copy));
+        assertTrue(copy.isSameImage(item));
+        // a new image is new content
+        item.setImage(image(16, 24));
+        assertNotEquals(hash, item.getContentHash());
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * ImageStoreTest.java
+ *
+ * Created on Oct 18, 2026 4:37:12 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ImageStoreTest
+ *
+ * @author ctipper
+ */
+
+public class ImageStoreTest {
+
+    ImageStore store;
+    List<ImageItem> images;
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStoreTest.class.getName());
+
+    @BeforeEach
+    public void setUp() {
+        store = new ImageStore();
+        images = new ArrayList<>();
+        logger.info("* ImageStoreTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.info("* ImageStoreTest: tearDown() method");
+    }
+
+    private static ImageItem encoded(int size) {
+        ImageItem item = new ImageItem();
+        item.setFormat("png");
+        item.setData(new byte[size]);
+        return item;
+    }
+
+    @Test
+    @DisplayName("Test undrawn images are discarded and the table shrinks")
+    public void shrinkTest() {
+        ImageItem drawn = encoded(1000);
+        ImageItem deleted = encoded(2000);
+        images.add(drawn);
+        images.add(deleted);
+        images.add(encoded(4000));
+        assertEquals(2, store.discard(images, new int[] { 1, 0, 0 }, new boolean[3]));
+        assertEquals(1, images.size());
+        assertSame(drawn, images.get(0));
+        ImageStore.Usage usage = store.trim(images, new int[] { 1 }, new boolean[] { true });
+        assertEquals(1, usage.images());
+        assertEquals(1000L, usage.encoded());
+        // a snapshot holding the discarded image may still write it
+        assertNotNull(deleted.getData());
+    }
+
+    @Test
+    @DisplayName("Test images within the table keep their index")
+    public void indexTest() {
+        images.add(encoded(1000));
+        images.add(encoded(2000));
+        ImageItem drawn = encoded(4000);
+        images.add(drawn);
+        store.discard(images, new int[] { 0, 0, 1 }, new boolean[3]);
+        assertEquals(3, images.size());
+        assertTrue(images.get(0).isEmpty());
+        assertTrue(images.get(1).isEmpty());
+        assertEquals("png", images.get(1).getFormat());
+        assertSame(drawn, images.get(2));
+        ImageStore.Usage usage = store.trim(images, new int[] { 0, 0, 1 }, new boolean[] { false, false, true });
+        assertEquals(4000L, usage.encoded());
+        // the table shrinks once the last picture goes
+        store.discard(images, new int[3], new boolean[3]);
+        assertTrue(images.isEmpty());
+        assertEquals(0L, store.trim(images, new int[0], new boolean[0]).encoded());
+    }
+
+    @Test
+    @DisplayName("Test trimming keeps undrawn images")
+    public void trimTest() {
+        ImageItem deleted = encoded(2000);
+        images.add(encoded(1000));
+        images.add(deleted);
+        ImageStore.Usage usage = store.trim(images, new int[] { 1, 0 }, new boolean[] { true, false });
+        assertEquals(2, images.size());
+        assertSame(deleted, images.get(1));
+        assertEquals(3000L, usage.encoded());
+    }
+
+    @Test
+    @DisplayName("Test images on the clipboard are kept")
+    public void clipboardTest() {
+        ImageItem cut = encoded(2000);
+        images.add(encoded(1000));
+        images.add(cut);
+        assertEquals(1, store.discard(images, new int[2], new boolean[] { false, true }));
+        assertEquals(2, images.size());
+        assertTrue(images.get(0).isEmpty());
+        assertSame(cut, images.get(1));
+        assertFalse(cut.isEmpty());
+        ImageStore.Usage usage = store.trim(images, new int[2], new boolean[2]);
+        assertEquals(2000L, usage.encoded());
+        assertEquals(0, usage.referencedImages());
+        // replaced on the clipboard
+        store.discard(images, new int[2], new boolean[2]);
+        assertTrue(images.isEmpty());
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * TextLayoutCacheTest.java
+ *
+ * Created on Oct 17, 2026 9:58:40 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.geom;
+
+import java.awt.font.FontRenderContext;
+import java.util.List;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TextLayoutCacheTest
+ *
+ * @author ctipper
+ */
+
+public class TextLayoutCacheTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextLayoutCacheTest.class.getName());
+
+    @BeforeEach
+    public void setUp() {
+        TextLayoutCache.clear();
+        logger.info("* TextLayoutCacheTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TextLayoutCache.clear();
+        logger.info("* TextLayoutCacheTest: tearDown() method");
+    }
+
+    private static Text text(String content) {
+        Text item = new Text(0, 0);
+        item.setText(content);
+        item.setFont("Serif");
+        item.setSize(12);
+        item.setStyle(0);
+        return item;
+    }
+
+    @Test
+    @DisplayName("Test key equality")
+    public void keyTest() {
+        TextLayoutCache.Key key = new TextLayoutCache.Key("text", "Serif", 12, 0);
+        assertEquals(key, new TextLayoutCache.Key("text", "Serif", 12, 0));
+        assertEquals(key.hashCode(), new TextLayoutCache.Key("text", "Serif", 12, 0).hashCode());
+        assertNotEquals(key, new TextLayoutCache.Key("Text", "Serif", 12, 0));
+        assertNotEquals(key, new TextLayoutCache.Key("text", "Sans", 12, 0));
+        assertNotEquals(key, new TextLayoutCache.Key("text", "Serif", 14, 0));
+        assertNotEquals(key, new TextLayoutCache.Key("text", "Serif", 12, 1));
+        assertEquals(new TextLayoutCache.Key("text", null, 12, 0), new TextLayoutCache.Key("text", null, 12, 0));
+    }
+
+    @Test
+    @DisplayName("Test items with the same content share an entry")
+    public void shareTest() {
+        Text a = text("one\ntwo");
+        Text b = text("one\ntwo");
+        b.setStart(100, 100);
+        b.setColor(Color.RED);
+        TextLayoutCache.Entry entry = TextLayoutCache.get(a);
+        assertSame(entry, TextLayoutCache.get(b));
+        assertEquals(2, entry.parsed().paragraphs().size());
+    }
+
+    @Test
+    @DisplayName("Test a change of content or font is a new entry")
+    public void invalidateTest() {
+        Text a = text("one");
+        TextLayoutCache.Entry entry = TextLayoutCache.get(a);
+        a.setSize(14);
+        assertNotSame(entry, TextLayoutCache.get(a));
+        a.setSize(12);
+        assertSame(entry, TextLayoutCache.get(a));
+        a.setText("two");
+        assertNotSame(entry, TextLayoutCache.get(a));
+        a.setText("one");
+        a.setStyle(1);
+        assertNotSame(entry, TextLayoutCache.get(a));
+    }
+
+    @Test
+    @DisplayName("Test measurement replaces the AWT layouts")
+    public void measureTest() {
+        TextLayoutCache.Entry entry = TextLayoutCache.get(text("one"));
+        FontRenderContext context = new FontRenderContext(null, true, true);
+        assertFalse(entry.isMeasured());
+        List<Text.TextLayoutInfo> layouts = entry.getAwtLayouts(context, List::of);
+        assertSame(layouts, entry.getAwtLayouts(context, () -> {
+            throw new AssertionError("layouts rebuilt");
+        }));
+        entry.setMeasurement(List.of(14.0), 40.0, 14.0);
+        assertTrue(entry.isMeasured());
+        assertEquals(List.of(14.0), entry.getFxParaHeights());
+        assertEquals(40.0, entry.getWidth());
+        assertEquals(14.0, entry.getHeight());
+        boolean[] rebuilt = { false };
+        entry.getAwtLayouts(context, () -> {
+            rebuilt[0] = true;
+            return List.of();
+        });
+        assertTrue(rebuilt[0]);
+    }
+
+    @Test
+    @DisplayName("Test least recently used entries are evicted")
+    public void evictionTest() {
+        Text a = text("a");
+        Text b = text("b");
+        TextLayoutCache.Entry entryA = TextLayoutCache.get(a);
+        TextLayoutCache.Entry entryB = TextLayoutCache.get(b);
+        for (int i = 0; i < TextLayoutCache.CAPACITY - 2; i++) {
+            TextLayoutCache.get(text("filler " + i));
+        }
+        // full, using a leaves b the eldest
+        assertSame(entryA, TextLayoutCache.get(a));
+        TextLayoutCache.get(text("overflow"));
+        assertSame(entryA, TextLayoutCache.get(a));
+        assertNotSame(entryB, TextLayoutCache.get(b));
+    }
+
+}
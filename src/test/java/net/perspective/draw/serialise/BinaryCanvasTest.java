@@ -0,0 +1,364 @@
+/*
+ * BinaryCanvasTest.java
+ *
+ * Created on Oct 18, 2026 10:04:37 AM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.serialise;
+
+import java.awt.BasicStroke;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import javafx.application.Platform;
+import javafx.scene.paint.Color;
+import net.perspective.draw.enums.DrawingType;
+import net.perspective.draw.geom.ArrowLine;
+import net.perspective.draw.geom.ArrowType;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Edge;
+import net.perspective.draw.geom.Figure;
+import net.perspective.draw.geom.FigureType;
+import net.perspective.draw.geom.Grouped;
+import net.perspective.draw.geom.Picture;
+import net.perspective.draw.geom.StreetMap;
+import net.perspective.draw.geom.Text;
+import net.perspective.draw.util.CanvasPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * BinaryCanvasTest
+ *
+ * @author ctipper
+ */
+
+public class BinaryCanvasTest {
+
+    static boolean toolkit;
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryCanvasTest.class.getName());
+
+    @BeforeAll
+    public static void setUpClass() {
+        // a StreetMap holds a MapView, which needs the FX toolkit
+        try {
+            Platform.startup(() -> {});
+            toolkit = true;
+        } catch (IllegalStateException e) {
+            toolkit = true;
+        } catch (RuntimeException e) {
+            logger.warn("FX toolkit unavailable: {}", e.getMessage());
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        logger.info("* BinaryCanvasTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.info("* BinaryCanvasTest: tearDown() method");
+    }
+
+    private static List<DrawItem> roundTrip(List<DrawItem> items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BinaryCanvasWriter(out).write(items);
+        return new BinaryCanvasReader(new ByteArrayInputStream(out.toByteArray()),
+            Picture::new, StreetMap::new).read();
+    }
+
+    private static Figure square(double x, double y, double side) {
+        Figure item = new Figure(FigureType.SQUARE);
+        item.setStart(x, y);
+        item.setEnd(x + side, y + side);
+        item.setPoints(DrawingType.SQUARE);
+        item.setEndPoints();
+        item.setPath();
+        return item;
+    }
+
+    private static Edge line(double x1, double y1, double x2, double y2) {
+        Edge item = new Edge(FigureType.LINE);
+        item.setStart(x1, y1);
+        item.setEnd(x2, y2);
+        item.setPoints(DrawingType.LINE);
+        item.setEndPoints();
+        item.setPath();
+        return item;
+    }
+
+    private static Edge sketch() {
+        Edge item = new Edge(FigureType.SKETCH);
+        item.setPoints(DrawingType.SKETCH);
+        item.addPoint(10, 10);
+        item.addPoint(20.5, 14.25);
+        item.addPoint(Math.PI * 10, Math.E * 10);
+        item.setEndPoints();
+        item.setPath();
+        // a fitted path with coordinates off the fixed point grid
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(10, 10);
+        path.curveTo(13.3, 11.1, 17.7, 13.9, 20.5, 14.25);
+        path.quadTo(Math.sqrt(700), Math.sqrt(600), Math.PI * 10, Math.E * 10);
+        item.setSketchPath(path);
+        return item;
+    }
+
+    private static Text text() {
+        Text item = new Text(40, 60);
+        item.setText("one\ntwo ünïcode");
+        item.setFont("Serif");
+        item.setStyle(1);
+        item.setSize(18);
+        item.setColor(Color.color(0.1, 0.2, 0.3, 0.4));
+        item.setTransparency(30);
+        item.setAngle(0.25);
+        item.setEnd(120.5, 44);
+        return item;
+    }
+
+    private static Picture picture(Picture item, int index) {
+        item.setImage(index, 320, 200);
+        item.setStart(5.5, 7.25);
+        item.setEnd(325.5, 207.25);
+        item.setScale(0.5);
+        item.setTransparency(20);
+        item.setVertical(true);
+        item.setAngle(-1.2);
+        return item;
+    }
+
+    private static void assertSamePath(Path2D.Double expected, Path2D.Double actual) {
+        assertEquals(expected.getWindingRule(), actual.getWindingRule());
+        PathIterator a = expected.getPathIterator(null);
+        PathIterator b = actual.getPathIterator(null);
+        double[] ca = new double[6];
+        double[] cb = new double[6];
+        while (!a.isDone()) {
+            assertFalse(b.isDone(), "path truncated");
+            Arrays.fill(ca, 0);
+            Arrays.fill(cb, 0);
+            assertEquals(a.currentSegment(ca), b.currentSegment(cb));
+            assertArrayEquals(ca, cb);
+            a.next();
+            b.next();
+        }
+        assertTrue(b.isDone(), "path extended");
+    }
+
+    private static void assertSamePoint(CanvasPoint expected, CanvasPoint actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(expected.x, actual.x);
+            assertEquals(expected.y, actual.y);
+        }
+    }
+
+    private static void assertSameItem(DrawItem expected, DrawItem actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        switch (expected) {
+            case ArrowLine arrow -> {
+                ArrowLine other = (ArrowLine) actual;
+                assertEquals(arrow.getArrowType(), other.getArrowType());
+                assertEquals(arrow.getArrowStroke(), other.getArrowStroke());
+                assertSameItem(arrow.getLine(), other.getLine());
+            }
+            case Figure figure -> {
+                Figure other = (Figure) actual;
+                assertEquals(figure.getType(), other.getType());
+                assertEquals(figure.getColor(), other.getColor());
+                assertEquals(figure.getFillColor(), other.getFillColor());
+                assertEquals(figure.getStroke(), other.getStroke());
+                assertEquals(figure.getTransparency(), other.getTransparency());
+                assertEquals(figure.isVertical(), other.isVertical());
+                assertEquals(figure.getAngle(), other.getAngle());
+                assertEquals(figure.getPoints().size(), other.getPoints().size());
+                for (int i = 0; i < figure.getPoints().size(); i++) {
+                    assertSamePoint(figure.getPoints().get(i), other.getPoints().get(i));
+                }
+                assertSamePoint(figure.getStart(), other.getStart());
+                assertSamePoint(figure.getEnd(), other.getEnd());
+                assertSamePath(figure.getPath(), other.getPath());
+            }
+            case Text text -> {
+                Text other = (Text) actual;
+                assertEquals(text.getText(), other.getText());
+                assertEquals(text.getFont(), other.getFont());
+                assertEquals(text.getStyle(), other.getStyle());
+                assertEquals(text.getSize(), other.getSize());
+                assertEquals(text.getColor(), other.getColor());
+                assertEquals(text.getTransparency(), other.getTransparency());
+                assertEquals(text.isVertical(), other.isVertical());
+                assertEquals(text.getAngle(), other.getAngle());
+                assertSamePoint(text.getStart(), other.getStart());
+                assertSamePoint(text.getEnd(), other.getEnd());
+            }
+            case Picture picture -> {
+                Picture other = (Picture) actual;
+                assertEquals(picture.getImageIndex(), other.getImageIndex());
+                assertSamePoint(picture.getStart(), other.getStart());
+                assertSamePoint(picture.getEnd(), other.getEnd());
+                assertEquals(picture.getScale(), other.getScale());
+                assertEquals(picture.getTransparency(), other.getTransparency());
+                assertEquals(picture.isVertical(), other.isVertical());
+                assertEquals(picture.getAngle(), other.getAngle());
+                if (picture instanceof StreetMap map) {
+                    StreetMap otherMap = (StreetMap) other;
+                    assertEquals(map.getLatitude(), otherMap.getLatitude());
+                    assertEquals(map.getLongitude(), otherMap.getLongitude());
+                    assertEquals(map.getZoom(), otherMap.getZoom());
+                }
+            }
+            case Grouped grouped -> {
+                Grouped other = (Grouped) actual;
+                assertEquals(grouped.getScale(), other.getScale());
+                assertEquals(grouped.getTransparency(), other.getTransparency());
+                assertEquals(grouped.getDrawItems().size(), other.getDrawItems().size());
+                for (int i = 0; i < grouped.getDrawItems().size(); i++) {
+                    assertSameItem(grouped.getDrawItems().get(i), other.getDrawItems().get(i));
+                }
+            }
+            default -> throw new AssertionError("Unexpected item " + expected);
+        }
+    }
+
+    private static void assertRoundTrip(List<DrawItem> items) throws IOException {
+        List<DrawItem> copies = roundTrip(items);
+        assertEquals(items.size(), copies.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertSameItem(items.get(i), copies.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test open, closed and sketch figures")
+    public void figureTest() throws IOException {
+        Figure closed = square(100, 50, 40);
+        closed.setColor(Color.color(0.123, 0.456, 0.789, 0.5));
+        closed.setFillColor(Color.color(0.9, 0.8, 0.7));
+        closed.setStroke(new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL,
+            10f, new float[] { 4f, 2f }, 1f));
+        closed.setTransparency(40);
+        closed.setAngle(0.7);
+        Edge open = line(0, 0, 33.3, 66.6);
+        open.setColor(Color.BLACK);
+        open.setVertical(true);
+        Edge sketch = sketch();
+        sketch.setColor(Color.color(0.123, 0.456, 0.789, 0.5));
+        assertRoundTrip(List.of(closed, open, sketch));
+    }
+
+    @Test
+    @DisplayName("Test colours keep their channels")
+    public void colourTest() throws IOException {
+        Figure item = square(0, 0, 10);
+        // neither channel is a multiple of 1/255
+        Color color = Color.color(0.3001, 0.6002, 0.1003, 0.2004);
+        item.setColor(color);
+        Color copy = ((Figure) roundTrip(List.of(item)).get(0)).getColor();
+        assertEquals((float) color.getRed(), (float) copy.getRed());
+        assertEquals((float) color.getGreen(), (float) copy.getGreen());
+        assertEquals((float) color.getBlue(), (float) copy.getBlue());
+        assertEquals((float) color.getOpacity(), (float) copy.getOpacity());
+    }
+
+    @Test
+    @DisplayName("Test arrow lines")
+    public void arrowLineTest() throws IOException {
+        ArrowLine arrow = new ArrowLine(line(10, 10, 200, 120), ArrowType.BOTH);
+        arrow.setArrowStroke(new BasicStroke(6f));
+        assertRoundTrip(List.of(arrow));
+    }
+
+    @Test
+    @DisplayName("Test text")
+    public void textTest() throws IOException {
+        Text empty = new Text(0, 0);
+        empty.setText(null);
+        empty.setEnd(10, 10);
+        assertRoundTrip(List.of(text(), empty));
+    }
+
+    @Test
+    @DisplayName("Test nested groups")
+    public void groupedTest() throws IOException {
+        Grouped inner = new Grouped();
+        inner.addDrawItem(square(0, 0, 20));
+        inner.addDrawItem(text());
+        Grouped outer = new Grouped();
+        outer.addDrawItem(inner);
+        outer.addDrawItem(sketch());
+        outer.addDrawItem(picture(new Picture(), 2));
+        outer.setTransparency(10);
+        outer.setScale(1.5);
+        assertRoundTrip(List.of(outer));
+    }
+
+    @Test
+    @DisplayName("Test picture image indices")
+    public void pictureTest() throws IOException {
+        List<DrawItem> copies = roundTrip(List.of(picture(new Picture(), 0), picture(new Picture(), 7)));
+        assertEquals(0, ((Picture) copies.get(0)).getImageIndex());
+        assertEquals(7, ((Picture) copies.get(1)).getImageIndex());
+        assertRoundTrip(List.of(picture(new Picture(), 3)));
+    }
+
+    @Test
+    @DisplayName("Test street maps")
+    public void streetMapTest() throws IOException {
+        assumeTrue(toolkit, "no FX toolkit");
+        StreetMap map = (StreetMap) picture(new StreetMap(), 4);
+        map.setLatitude(51.5074);
+        map.setLongitude(-0.1278);
+        map.setZoom(13);
+        List<DrawItem> copies = roundTrip(List.of(map));
+        assertInstanceOf(StreetMap.class, copies.get(0));
+        assertSameItem(map, copies.get(0));
+    }
+
+    @Test
+    @DisplayName("Test a foreign stream is rejected")
+    public void magicTest() {
+        assertThrows(IOException.class, () -> new BinaryCanvasReader(
+            new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }), Picture::new, StreetMap::new).read());
+    }
+
+}
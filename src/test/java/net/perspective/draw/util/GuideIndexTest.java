@@ -0,0 +1,197 @@
+/*
+ * GuideIndexTest.java
+ *
+ * Created on Oct 17, 2026 10:12:25 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import net.perspective.draw.enums.DrawingType;
+import net.perspective.draw.geom.DrawItem;
+import net.perspective.draw.geom.Figure;
+import net.perspective.draw.geom.FigureType;
+import net.perspective.draw.util.GuideIndex.Guide;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GuideIndexTest
+ *
+ * @author ctipper
+ */
+
+public class GuideIndexTest {
+
+    GuideIndex index;
+    Set<DrawItem> none;
+
+    private static final Logger logger = LoggerFactory.getLogger(GuideIndexTest.class.getName());
+
+    @BeforeEach
+    public void setUp() {
+        index = new GuideIndex();
+        none = Collections.newSetFromMap(new IdentityHashMap<>());
+        logger.info("* GuideIndexTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.info("* GuideIndexTest: tearDown() method");
+    }
+
+    private static Figure square(double x, double y, double side) {
+        Figure item = new Figure(FigureType.SQUARE);
+        item.setStart(x, y);
+        item.setEnd(x + side, y + side);
+        item.setPoints(DrawingType.SQUARE);
+        item.setEndPoints();
+        item.setPath();
+        return item;
+    }
+
+    @Test
+    @DisplayName("Test extent from transformed corners")
+    public void extentTest() {
+        assertArrayEquals(new double[] { 100, 50, 140, 90 }, GuideIndex.extentOf(square(100, 50, 40)));
+    }
+
+    @Test
+    @DisplayName("Test nearest edges and centres")
+    public void nearestTest() {
+        index.insert(square(0, 0, 20));
+        index.insert(square(100, 50, 40));
+        assertEquals(20.0, index.nearest(Guide.EDGE_X, 23, 5, none));
+        assertEquals(100.0, index.nearest(Guide.EDGE_X, 97, 5, none));
+        assertEquals(120.0, index.nearest(Guide.CENTRE_X, 118, 5, none));
+        assertEquals(90.0, index.nearest(Guide.EDGE_Y, 91, 5, none));
+        assertEquals(70.0, index.nearest(Guide.CENTRE_Y, 72, 5, none));
+        assertTrue(Double.isNaN(index.nearest(Guide.CENTRE_X, 60, 5, none)));
+        // the nearer of two candidates
+        assertEquals(140.0, index.nearest(Guide.EDGE_X, 138, 50, none));
+    }
+
+    @Test
+    @DisplayName("Test tolerance is inclusive")
+    public void toleranceTest() {
+        index.insert(square(0, 0, 20));
+        assertEquals(20.0, index.nearest(Guide.EDGE_X, 25, 5, none));
+        assertEquals(0.0, index.nearest(Guide.EDGE_X, -5, 5, none));
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 25.5, 5, none)));
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, -5.5, 5, none)));
+        assertEquals(10.0, index.nearest(Guide.CENTRE_Y, 10, 0, none));
+    }
+
+    @Test
+    @DisplayName("Test excluded items are ignored")
+    public void exclusionTest() {
+        Figure a = square(0, 0, 20);
+        Figure b = square(22, 0, 20);
+        index.insert(a);
+        index.insert(b);
+        assertEquals(20.0, index.nearest(Guide.EDGE_X, 20.5, 5, none));
+        Set<DrawItem> excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+        excluded.add(a);
+        assertEquals(22.0, index.nearest(Guide.EDGE_X, 20.5, 5, excluded));
+        excluded.add(b);
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 20.5, 5, excluded)));
+    }
+
+    @Test
+    @DisplayName("Test coincident coordinates of several items")
+    public void coincidentTest() {
+        Figure a = square(0, 0, 20);
+        Figure b = square(0, 40, 20);
+        index.insert(a);
+        index.insert(b);
+        Set<DrawItem> excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+        excluded.add(a);
+        assertEquals(0.0, index.nearest(Guide.EDGE_X, 1, 5, excluded));
+        index.remove(b);
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 1, 5, excluded)));
+        assertEquals(0.0, index.nearest(Guide.EDGE_X, 1, 5, none));
+    }
+
+    @Test
+    @DisplayName("Test an item is refreshed when moved and removed")
+    public void moveTest() {
+        Figure a = square(0, 0, 20);
+        index.insert(a);
+        a.moveTo(300, 0);
+        index.insert(a);
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 20, 5, none)));
+        assertEquals(320.0, index.nearest(Guide.EDGE_X, 321, 5, none));
+        assertEquals(10.0, index.nearest(Guide.CENTRE_Y, 10, 5, none));
+        index.remove(a);
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 321, 5, none)));
+        assertTrue(Double.isNaN(index.nearest(Guide.CENTRE_Y, 10, 5, none)));
+    }
+
+    @Test
+    @DisplayName("Test growth beyond the initial capacity")
+    public void growthTest() {
+        for (int i = 0; i < 100; i++) {
+            index.insert(square(i * 50, 0, 10));
+        }
+        assertEquals(4950.0, index.nearest(Guide.EDGE_X, 4952, 5, none));
+        assertEquals(4960.0, index.nearest(Guide.EDGE_X, 4958, 5, none));
+        index.clear();
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 4952, 5, none)));
+    }
+
+    @Test
+    @DisplayName("Test items inserted together are merged with those held")
+    public void insertAllTest() {
+        Figure held = square(1027, 0, 10);
+        index.insert(held);
+        index.insert(square(-500, 0, 10));
+        List<DrawItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(square((99 - i) * 50, 0, 10));
+        }
+        // an item held is refreshed
+        held.moveTo(3, 0);
+        items.add(held);
+        index.insertAll(items);
+        assertEquals(4950.0, index.nearest(Guide.EDGE_X, 4952, 5, none));
+        assertEquals(4960.0, index.nearest(Guide.EDGE_X, 4958, 5, none));
+        assertEquals(-490.0, index.nearest(Guide.EDGE_X, -488, 5, none));
+        assertEquals(1040.0, index.nearest(Guide.EDGE_X, 1041, 1.5, none));
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 1027, 1, none)));
+        assertEquals(55.0, index.nearest(Guide.CENTRE_X, 56, 2, none));
+        index.remove(items.get(0));
+        assertTrue(Double.isNaN(index.nearest(Guide.EDGE_X, 4952, 1, none)));
+        index.insert(square(4950, 0, 10));
+        assertEquals(4950.0, index.nearest(Guide.EDGE_X, 4952, 5, none));
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * PNGWriterTest.java
+ *
+ * Created on Oct 18, 2026 11:26:03 AM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * PNGWriterTest
+ *
+ * @author ctipper
+ */
+
+public class PNGWriterTest {
+
+    ExecutorService executor;
+
+    private static final Logger logger = LoggerFactory.getLogger(PNGWriterTest.class.getName());
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        logger.info("* PNGWriterTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        logger.info("* PNGWriterTest: tearDown() method");
+    }
+
+    /**
+     * Gradients that compress well with noise that does not, and
+     * transparent regions with colour beneath
+     */
+    private static int[] pixels(int width, int height, long seed) {
+        Random random = new Random(seed);
+        int[] argb = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int a = (x / 16 + y / 16) % 3 == 0 ? 0 : (x + 3 * y) & 0xFF;
+                int r = (x * 7 + y) & 0xFF;
+                int g = (y & 32) == 0 ? random.nextInt(256) : (x ^ y) & 0xFF;
+                int b = (y * 5) & 0xFF;
+                argb[y * width + x] = a << 24 | r << 16 | g << 8 | b;
+            }
+        }
+        return argb;
+    }
+
+    private static byte[] write(int[] argb, int width, int height, boolean opaque,
+            int level, PNGWriter.Filter filter, ExecutorService executor) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PNGWriter png = new PNGWriter(out, width, height, opaque, level, filter, executor);
+        // an uneven number of rows at a time
+        for (int y = 0; y < height; y += 7) {
+            png.writeRows(argb, y * width, width, Math.min(7, height - y));
+        }
+        png.finish();
+        return out.toByteArray();
+    }
+
+    private static void assertPixels(int[] argb, int width, int height, boolean opaque, byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertNotNull(image, "not a PNG");
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+        assertEquals(!opaque, image.getColorModel().hasAlpha());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int expected = argb[y * width + x];
+                if (opaque) {
+                    expected |= 0xFF000000;
+                }
+                int actual = image.getRGB(x, y);
+                if (expected != actual) {
+                    assertEquals(Integer.toHexString(expected), Integer.toHexString(actual),
+                        "pixel at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    private static void assertRoundTrip(int width, int height, boolean opaque,
+            int level, PNGWriter.Filter filter, ExecutorService executor) throws IOException {
+        int[] argb = pixels(width, height, 31L * width + height);
+        assertPixels(argb, width, height, opaque, write(argb, width, height, opaque, level, filter, executor));
+    }
+
+    @Test
+    @DisplayName("Test opaque images")
+    public void opaqueTest() throws IOException {
+        assertRoundTrip(64, 48, true, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, null);
+        assertRoundTrip(64, 48, true, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, executor);
+    }
+
+    @Test
+    @DisplayName("Test images with alpha")
+    public void alphaTest() throws IOException {
+        assertRoundTrip(64, 48, false, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, null);
+        assertRoundTrip(64, 48, false, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, executor);
+    }
+
+    @Test
+    @DisplayName("Test the default constructor")
+    public void defaultTest() throws IOException {
+        int[] argb = pixels(40, 30, 7L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PNGWriter png = new PNGWriter(out, 40, 30, false);
+        png.writeRows(argb, 0, 40, 30);
+        png.finish();
+        assertPixels(argb, 40, 30, false, out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Test narrow and single pixel images")
+    public void narrowTest() throws IOException {
+        for (boolean opaque : new boolean[] { true, false }) {
+            assertRoundTrip(1, 1, opaque, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, null);
+            assertRoundTrip(1, 1000, opaque, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, null);
+            assertRoundTrip(1, 1000, opaque, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.PAETH, executor);
+            assertRoundTrip(1000, 1, opaque, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.UP, executor);
+        }
+    }
+
+    @Test
+    @DisplayName("Test images spanning several compressed blocks")
+    public void blockTest() throws IOException {
+        // rows of 901 and 1029 bytes, the data ends part way through a block
+        assertRoundTrip(300, 500, true, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, null);
+        assertRoundTrip(300, 500, true, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, executor);
+        assertRoundTrip(257, 611, false, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, null);
+        assertRoundTrip(257, 611, false, Deflater.DEFAULT_COMPRESSION, PNGWriter.Filter.ADAPTIVE, executor);
+    }
+
+    @Test
+    @DisplayName("Test each filter")
+    public void filterTest() throws IOException {
+        for (PNGWriter.Filter filter : PNGWriter.Filter.values()) {
+            assertRoundTrip(200, 300, true, Deflater.DEFAULT_COMPRESSION, filter, null);
+            assertRoundTrip(200, 300, false, Deflater.DEFAULT_COMPRESSION, filter, executor);
+        }
+    }
+
+    @Test
+    @DisplayName("Test compression levels")
+    public void levelTest() throws IOException {
+        for (int level : new int[] { 0, Deflater.DEFAULT_COMPRESSION, 9 }) {
+            assertRoundTrip(300, 500, true, level, PNGWriter.Filter.ADAPTIVE, null);
+            assertRoundTrip(257, 611, false, level, PNGWriter.Filter.ADAPTIVE, executor);
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent compression writes the same stream")
+    public void executorTest() throws IOException {
+        int[] argb = pixels(257, 611, 3L);
+        for (int level : new int[] { 0, Deflater.DEFAULT_COMPRESSION, 9 }) {
+            assertArrayEquals(write(argb, 257, 611, false, level, PNGWriter.Filter.ADAPTIVE, null),
+                write(argb, 257, 611, false, level, PNGWriter.Filter.ADAPTIVE, executor));
+        }
+    }
+
+    @Test
+    @DisplayName("Test the row count is enforced")
+    public void rowCountTest() throws IOException {
+        int[] argb = pixels(10, 10, 5L);
+        PNGWriter png = new PNGWriter(new ByteArrayOutputStream(), 10, 10, true);
+        png.writeRows(argb, 0, 10, 5);
+        assertThrows(IllegalStateException.class, png::finish);
+        assertThrows(IllegalStateException.class, () -> png.writeRows(argb, 0, 10, 10));
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * SpatialIndexTest.java
+ *
+ * Created on Oct 17, 2026 9:41:12 PM
+ *
+ */
+
+/**
+ * Copyright (c) 2026 Christopher Tipper
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.perspective.draw.util;
+
+import java.awt.geom.Rectangle2D;
+import net.perspective.draw.enums.DrawingType;
+import net.perspective.draw.geom.Figure;
+import net.perspective.draw.geom.FigureType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SpatialIndexTest
+ *
+ * @author ctipper
+ */
+
+public class SpatialIndexTest {
+
+    SpatialIndex index;
+
+    private static final Logger logger = LoggerFactory.getLogger(SpatialIndexTest.class.getName());
+
+    @BeforeEach
+    public void setUp() {
+        index = new SpatialIndex();
+        logger.info("* SpatialIndexTest: setUp() method");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.info("* SpatialIndexTest: tearDown() method");
+    }
+
+    private static Figure square(double x, double y, double side) {
+        Figure item = new Figure(FigureType.SQUARE);
+        item.setStart(x, y);
+        item.setEnd(x + side, y + side);
+        item.setPoints(DrawingType.SQUARE);
+        item.setEndPoints();
+        item.setPath();
+        return item;
+    }
+
+    @Test
+    @DisplayName("Test insert and query")
+    public void insertTest() {
+        Figure a = square(10, 10, 20);
+        Figure b = square(600, 600, 20);
+        index.insert(a);
+        index.insert(b);
+        assertEquals(2, index.size());
+        assertTrue(index.query(20, 20, 0).contains(a));
+        assertFalse(index.query(20, 20, 0).contains(b));
+        assertTrue(index.query(610, 610, 0).contains(b));
+        assertTrue(index.query(300, 300, 0).isEmpty());
+        assertEquals(2, index.query(new Rectangle2D.Double(0, 0, 1000, 1000)).size());
+        assertEquals(new Rectangle2D.Double(10, 10, 20, 20), index.getExtent(a));
+    }
+
+    @Test
+    @DisplayName("Test an item is re-indexed when moved")
+    public void moveTest() {
+        Figure a = square(10, 10, 20);
+        index.insert(a);
+        a.moveTo(1000, 1000);
+        index.insert(a);
+        assertEquals(1, index.size());
+        assertTrue(index.query(20, 20, 0).isEmpty());
+        assertTrue(index.query(1020, 1020, 0).contains(a));
+        assertTrue(index.intersects(a, new Rectangle2D.Double(1005, 1005, 10, 10)));
+        assertFalse(index.intersects(a, new Rectangle2D.Double(0, 0, 50, 50)));
+    }
+
+    @Test
+    @DisplayName("Test remove")
+    public void removeTest() {
+        Figure a = square(10, 10, 20);
+        Figure b = square(15, 15, 20);
+        index.insert(a);
+        index.insert(b);
+        index.remove(a);
+        assertEquals(1, index.size());
+        assertFalse(index.query(20, 20, 0).contains(a));
+        assertTrue(index.query(20, 20, 0).contains(b));
+        assertNull(index.getExtent(a));
+        // removing twice is harmless
+        index.remove(a);
+        index.remove(b);
+        assertEquals(0, index.size());
+        assertTrue(index.query(20, 20, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test queries at cell borders")
+    public void borderTest() {
+        // spans the corner of four cells
+        Figure a = square(250, 250, 10);
+        // ends on a cell border
+        Figure b = square(500, 100, 12);
+        index.insert(a);
+        index.insert(b);
+        assertTrue(index.query(256, 256, 0).contains(a));
+        assertTrue(index.query(255.9, 259, 0).contains(a));
+        assertTrue(index.query(259, 251, 0).contains(a));
+        // the extent is closed on its edges
+        assertTrue(index.query(260, 260, 0).contains(a));
+        assertTrue(index.query(512, 112, 0).contains(b));
+        assertFalse(index.query(512.5, 112, 0).contains(b));
+        // within margin across the border
+        assertFalse(index.query(262, 258, 1).contains(a));
+        assertTrue(index.query(262, 258, 2).contains(a));
+        assertTrue(index.query(new Rectangle2D.Double(261, 0, 200, 249)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test items larger than the grid")
+    public void oversizeTest() {
+        Figure a = square(-2000, -2000, 5000);
+        index.insert(a);
+        assertTrue(index.query(0, 0, 0).contains(a));
+        assertTrue(index.query(1999, -1999, 0).contains(a));
+        assertFalse(index.query(3100, 0, 0).contains(a));
+        index.remove(a);
+        assertTrue(index.query(0, 0, 0).isEmpty());
+        index.insert(a);
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.query(0, 0, 0).isEmpty());
+    }
+
+}